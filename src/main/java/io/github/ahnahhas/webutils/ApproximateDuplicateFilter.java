@@ -0,0 +1,290 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe {@link java.util.function.Predicate} filtering out duplicate elements using a scalable
+ * Bloom filter. Keys of the elements are hashed into a first Bloom filter sized for the expected number
+ * of insertions. When it is full, a new filter twice as large, with half the false positive probability,
+ * is appended, so the compound false positive probability stays under the requested one.
+ * <p>
+ * Memory is a few bits per distinct key instead of the keys themselves, at the price of false positives:
+ * a new element may be considered a duplicate and filtered out. Two equal elements tested at the same
+ * time by different threads may both pass. Instances are returned by
+ * {@link StreamUtils#filterDuplicateApprox(java.util.function.Function, long, double)} and
+ * {@link StreamUtils#filterDuplicateApproxByHash(java.util.function.ToLongFunction, long, double)}.
+ * <p>
+ * Keys are hashed on 64 bits when they are {@link java.lang.CharSequence}, integral or floating point
+ * {@link java.lang.Number} or {@link java.util.UUID} references. Other keys are hashed from their
+ * {@link java.lang.Object#hashCode()}, which only has 32 bits: beyond about 2^32 distinct keys, distinct
+ * keys collide and new elements are filtered out more often than fpp, which {@link #expectedFpp()} does
+ * not report. For such keys, pass a 64-bit key hasher instead.
+ *
+ * @param <T> Type (or super type) of Stream elements
+ * @author Ahmed Amin Nahhas
+ */
+public final class ApproximateDuplicateFilter<T> implements Predicate<T> {
+
+    //growth factor of the capacity of each new filter
+    private static final int GROWTH = 2;
+
+    //tightening ratio of the false positive probability of each new filter
+    private static final double TIGHTENING = 0.5;
+
+    private final ToLongFunction<? super T> keyHasher;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    //filters, the last one receives the insertions
+    private volatile Stage[] stages;
+
+    ApproximateDuplicateFilter(ToLongFunction<? super T> keyHasher, long expectedInsertions, double fpp) {
+
+        this.keyHasher = keyHasher;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.stages = new Stage[] { new Stage(expectedInsertions, fpp * (1 - TIGHTENING)) };
+
+    }
+
+    /**
+     * Returns true if the key of the element was (probably) never seen, and remembers it.
+     *
+     * @param element Element to test
+     * @return        boolean equal to false if the element is probably a duplicate
+     */
+    @Override
+    public boolean test(T element) {
+
+        long hash = mix(keyHasher.applyAsLong(element));
+        Stage[] current = stages;
+        int last = current.length - 1;
+
+        for(int i=0; i<last; i++)
+            if(current[i].mightContain(hash))
+                return false;
+
+        Stage stage = current[last];
+        if(!stage.put(hash))
+            return false;
+
+        if(stage.insertions.incrementAndGet() >= stage.capacity)
+            grow(stage);
+
+        return true;
+
+    }
+
+    /**
+     * Returns the memory used by the bits of the filters, in bytes.
+     *
+     * @return Memory footprint in bytes
+     */
+    public long memoryBytes() {
+
+        long bytes = 0;
+        for(Stage stage : stages)
+            bytes += (long) stage.bits.length() * Long.BYTES;
+
+        return bytes;
+
+    }
+
+    /**
+     * Returns the current estimate of the probability that a never seen element is filtered out,
+     * computed from the proportion of bits set in each filter.
+     *
+     * @return Estimated false positive probability
+     */
+    public double expectedFpp() {
+
+        double pass = 1.0;
+        for(Stage stage : stages)
+            pass *= 1.0 - stage.expectedFpp();
+
+        return 1.0 - pass;
+
+    }
+
+    /**
+     * Returns the number of elements that passed the filter so far.
+     *
+     * @return Number of accepted elements
+     */
+    public long approximateInsertions() {
+
+        long insertions = 0;
+        for(Stage stage : stages)
+            insertions += stage.insertions.get();
+
+        return insertions;
+
+    }
+
+    /**
+     * Returns the number of Bloom filters, growing each time the filters are full.
+     *
+     * @return Number of filters
+     */
+    public int filterCount() {
+        return stages.length;
+    }
+
+    @Override
+    public String toString() {
+        return "ApproximateDuplicateFilter[expectedInsertions=" + expectedInsertions + ", fpp=" + fpp
+            + ", filters=" + filterCount() + ", memoryBytes=" + memoryBytes() + ", expectedFpp=" + expectedFpp() + "]";
+    }
+
+    /**
+     * Returns a 64-bit key hasher of the keys returned by keyFunction.
+     *
+     * @param <T>         Type (or super type) of Stream elements
+     * @param keyFunction Function returning the key of an element
+     * @return            ToLongFunction hashing the key of an element
+     */
+    static <T> ToLongFunction<T> keyHasher(Function<? super T, ?> keyFunction) {
+        return element -> hash(keyFunction.apply(element));
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private synchronized void grow(Stage full) {
+
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if(last != full) return;
+
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = new Stage(
+            saturatedMultiply(last.capacity, GROWTH), last.fpp * TIGHTENING);
+
+        stages = grown;
+
+    }
+
+    private static long saturatedMultiply(long value, int factor) {
+        return value > Long.MAX_VALUE / factor ? Long.MAX_VALUE : value * factor;
+    }
+
+    private static long hash(Object key) {
+
+        if(key == null) return 0L;
+
+        if(key instanceof CharSequence) {
+
+            CharSequence str = (CharSequence) key;
+            long hash = 0xcbf29ce484222325L;
+            for(int i=0; i<str.length(); i++)
+                hash = (hash ^ str.charAt(i)) * 0x100000001b3L;
+
+            return hash;
+
+        }
+
+        if(key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte)
+            return ((Number) key).longValue();
+
+        if(key instanceof Double || key instanceof Float)
+            return Double.doubleToLongBits(((Number) key).doubleValue());
+
+        if(key instanceof UUID) {
+            UUID uuid = (UUID) key;
+            return mix(uuid.getMostSignificantBits()) ^ uuid.getLeastSignificantBits();
+        }
+
+        //only 32 bits of entropy, see the class documentation
+        return key.hashCode();
+
+    }
+
+    private static long mix(long hash) {
+
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+
+    }
+
+    private static final class Stage {
+
+        //largest bit array, in longs
+        private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+        private final long capacity;
+        private final double fpp;
+        private final int hashCount;
+        private final long bitSize;
+        private final AtomicLongArray bits;
+        private final LongAdder bitCount = new LongAdder();
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Stage(long capacity, double fpp) {
+
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(MAX_WORDS, Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE));
+
+            this.capacity = capacity;
+            this.fpp = fpp;
+            this.bits = new AtomicLongArray(words);
+            this.bitSize = (long) words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+
+        }
+
+        private boolean mightContain(long hash) {
+
+            long h1 = hash, h2 = mix(hash + 0x9e3779b97f4a7c15L);
+            for(int i=0; i<hashCount; i++) {
+
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                if((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+
+            }
+
+            return true;
+
+        }
+
+        //returns true if at least one bit was set, meaning the hash was not contained
+        private boolean put(long hash) {
+
+            boolean changed = false;
+            long h1 = hash, h2 = mix(hash + 0x9e3779b97f4a7c15L);
+
+            for(int i=0; i<hashCount; i++) {
+
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+
+                if((bits.get(word) & mask) != 0)
+                    continue;
+
+                long previous = bits.getAndAccumulate(word, mask, (value, m) -> value | m);
+                if((previous & mask) == 0) {
+                    bitCount.increment();
+                    changed = true;
+                }
+
+            }
+
+            return changed;
+
+        }
+
+        private double expectedFpp() {
+            return Math.pow((double) bitCount.sum() / bitSize, hashCount);
+        }
+
+    }
+
+}
@@ -0,0 +1,262 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * {@link java.util.stream.Collector} implementations collecting into arrays without boxing.
+ * Elements are appended to growable array buffers, partial buffers of parallel Streams are
+ * merged with a single array copy, and the final array is trimmed to the number of elements.
+ * @author Ahmed Amin Nahhas
+ */
+final class ArrayCollectors {
+
+    //first capacity of a buffer
+    private static final int INITIAL_CAPACITY = 16;
+
+    //largest array size
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private ArrayCollectors() {}
+
+    /**
+     * Returns a Collector of int values into a trimmed int array.
+     *
+     * @param <T>    Type of collected elements
+     * @param mapper Mapper to transform an element to an int
+     * @return       Collector into an int array
+     */
+    static <T> Collector<T, ?, int[]> toIntArray(ToIntFunction<? super T> mapper) {
+
+        return Collector.of(IntBuffer::new, (buffer, element) -> buffer.add(mapper.applyAsInt(element)),
+            IntBuffer::addAll, IntBuffer::toArray);
+
+    }
+
+    /**
+     * Returns a Collector of long values into a trimmed long array.
+     *
+     * @param <T>    Type of collected elements
+     * @param mapper Mapper to transform an element to a long
+     * @return       Collector into a long array
+     */
+    static <T> Collector<T, ?, long[]> toLongArray(ToLongFunction<? super T> mapper) {
+
+        return Collector.of(LongBuffer::new, (buffer, element) -> buffer.add(mapper.applyAsLong(element)),
+            LongBuffer::addAll, LongBuffer::toArray);
+
+    }
+
+    /**
+     * Returns a Collector of double values into a trimmed double array.
+     *
+     * @param <T>    Type of collected elements
+     * @param mapper Mapper to transform an element to a double
+     * @return       Collector into a double array
+     */
+    static <T> Collector<T, ?, double[]> toDoubleArray(ToDoubleFunction<? super T> mapper) {
+
+        return Collector.of(DoubleBuffer::new, (buffer, element) -> buffer.add(mapper.applyAsDouble(element)),
+            DoubleBuffer::addAll, DoubleBuffer::toArray);
+
+    }
+
+    /**
+     * Returns a Collector of elements into an unmodifiable List backed by a trimmed array.
+     *
+     * @param <T> Type of collected elements
+     * @return    Collector into a compact List
+     */
+    static <T> Collector<T, ?, List<T>> toCompactList() {
+        return Collector.of(ObjectBuffer<T>::new, ObjectBuffer::add, ObjectBuffer::addAll, ObjectBuffer::toList);
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static int grow(int capacity, int required) {
+
+        if(required < 0 || required > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required array size too large");
+
+        long grown = Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+        return (int) Math.min(MAX_CAPACITY, Math.max(grown, required));
+
+    }
+
+    private static final class IntBuffer {
+
+        private int[] values = new int[0];
+        private int size;
+
+        private void add(int value) {
+
+            if(size == values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+
+            values[size++] = value;
+
+        }
+
+        private IntBuffer addAll(IntBuffer other) {
+
+            if(size == 0) return other;
+
+            if(size + other.size > values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + other.size));
+
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+
+        }
+
+        private int[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+    }
+
+    private static final class LongBuffer {
+
+        private long[] values = new long[0];
+        private int size;
+
+        private void add(long value) {
+
+            if(size == values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+
+            values[size++] = value;
+
+        }
+
+        private LongBuffer addAll(LongBuffer other) {
+
+            if(size == 0) return other;
+
+            if(size + other.size > values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + other.size));
+
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+
+        }
+
+        private long[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+    }
+
+    private static final class DoubleBuffer {
+
+        private double[] values = new double[0];
+        private int size;
+
+        private void add(double value) {
+
+            if(size == values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+
+            values[size++] = value;
+
+        }
+
+        private DoubleBuffer addAll(DoubleBuffer other) {
+
+            if(size == 0) return other;
+
+            if(size + other.size > values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + other.size));
+
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+
+        }
+
+        private double[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+
+    }
+
+    private static final class ObjectBuffer<T> {
+
+        private Object[] values = new Object[0];
+        private int size;
+
+        private void add(T value) {
+
+            if(size == values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+
+            values[size++] = value;
+
+        }
+
+        private ObjectBuffer<T> addAll(ObjectBuffer<T> other) {
+
+            if(size == 0) return other;
+
+            if(size + other.size > values.length)
+                values = Arrays.copyOf(values, grow(values.length, size + other.size));
+
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+
+        }
+
+        private List<T> toList() {
+            return new CompactList<>(size == values.length ? values : Arrays.copyOf(values, size));
+        }
+
+    }
+
+    private static final class CompactList<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] values;
+
+        private CompactList(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+
+            if(index < 0 || index >= values.length)
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + values.length);
+
+            return (T) values[index];
+
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return values.clone();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return Spliterators.spliterator(values, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * {@link java.util.Spliterator} over an {@link java.lang.Iterable} of unknown size, splitting off
+ * batches copied into arrays. The first batch is small so that short or slow iterables, like cursors,
+ * still split, and each next batch grows by the same unit. An optional size hint is reported as the
+ * estimated size and bounds the batches, it does not need to be exact.
+ * @author Ahmed Amin Nahhas
+ */
+final class BatchSpliterator<T> implements Spliterator<T> {
+
+    //growth of each batch
+    static final int BATCH_UNIT = 64;
+
+    //largest batch
+    static final int MAX_BATCH = 1 << 25;
+
+    private final Iterable<? extends T> iterable;
+    private Iterator<? extends T> iterator;
+    private long estimate;
+    private int batch;
+
+    /**
+     * Returns a Spliterator over the iterable.
+     *
+     * @param iterable Iterable to traverse
+     * @param sizeHint Estimated number of elements, or Long.MAX_VALUE if unknown
+     */
+    BatchSpliterator(Iterable<? extends T> iterable, long sizeHint) {
+
+        this.iterable = iterable;
+        this.estimate = sizeHint;
+
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+
+        Iterator<? extends T> it = iterator();
+        if(!it.hasNext() || estimate <= 1) return null;
+
+        int size = (int) Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), estimate);
+        Object[] array = new Object[size];
+
+        int count = 0;
+        do {
+            array[count++] = it.next();
+        } while(count < size && it.hasNext());
+
+        batch = count;
+        if(estimate != Long.MAX_VALUE)
+            estimate = Math.max(estimate - count, it.hasNext() ? 1 : 0);
+
+        return Spliterators.spliterator(array, 0, count, Spliterator.ORDERED);
+
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+        Iterator<? extends T> it = iterator();
+        if(!it.hasNext()) return false;
+
+        action.accept(it.next());
+        return true;
+
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        iterator().forEachRemaining(action);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED;
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private Iterator<? extends T> iterator() {
+
+        if(iterator == null)
+            iterator = iterable.iterator();
+
+        return iterator;
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted by the {@link CollectionUtils} operations comparing collection
+ * elements with a {@link java.util.Comparator}. The event is committed only if the call lasts longer
+ * than its threshold, 10 ms by default, which can be changed through the recording settings, for
+ * instance {@code jfr configure +webutils.CollectionOperation#threshold=1ms}. When no recording is
+ * running, the event methods are empty and the JIT compiler removes them.
+ * @author Ahmed Amin Nahhas
+ */
+@Name("webutils.CollectionOperation")
+@Label("Collection Operation")
+@Category("WebUtils")
+@Description("CollectionUtils operation lasting longer than the threshold")
+@Threshold("10 ms")
+@StackTrace(true)
+final class CollectionOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Input Size")
+    @Description("Number of elements of the first input collection")
+    long inputSize;
+
+    @Label("Other Input Size")
+    @Description("Number of elements of the other input collections")
+    long otherInputSize;
+
+    @Label("Comparator Class")
+    Class<?> comparatorClass;
+
+    private CollectionOperationEvent() {}
+
+    /**
+     * Returns a new started event.
+     * 
+     * @return Started event
+     */
+    static CollectionOperationEvent start() {
+
+        CollectionOperationEvent event = new CollectionOperationEvent();
+        event.begin();
+        return event;
+
+    }
+
+    /**
+     * Ends the event and commits it if its threshold is exceeded.
+     * 
+     * @param operation  Name of the operation
+     * @param comparator Comparator used by the operation
+     * @param input      First input collection
+     * @param other      Other input collection
+     */
+    void end(String operation, Comparator<?> comparator, Collection<?> input, Collection<?> other) {
+
+        end();
+        if(shouldCommit())
+            commit(operation, comparator, sizeOf(input), sizeOf(other));
+
+    }
+
+    /**
+     * Ends the event and commits it if its threshold is exceeded.
+     * 
+     * @param operation   Name of the operation
+     * @param comparator  Comparator used by the operation
+     * @param collections Input collections
+     */
+    void end(String operation, Comparator<?> comparator, Collection<?>[] collections) {
+
+        end();
+        if(!shouldCommit()) return;
+
+        long inputSize = 0, otherInputSize = 0;
+        for(int i=0; collections != null && i<collections.length; i++)
+            if(i == 0) inputSize = sizeOf(collections[i]);
+            else otherInputSize += sizeOf(collections[i]);
+
+        commit(operation, comparator, inputSize, otherInputSize);
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private void commit(String operation, Comparator<?> comparator, long inputSize, long otherInputSize) {
+
+        this.operation = operation;
+        this.comparatorClass = comparator == null ? null : comparator.getClass();
+        this.inputSize = inputSize;
+        this.otherInputSize = otherInputSize;
+        commit();
+
+    }
+
+    private static long sizeOf(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+
+}
@@ -11,7 +11,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -19,11 +19,21 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Utility methods to handle {@link java.util.Collection}.
+ * <p>
+ * Operations comparing every element of a collection against another collection (distinct, outerJoin, 
+ * containsAny, containsAll, compliant and nonCompliant) are guarded against large inputs: when the product 
+ * of the input sizes exceeds the {@code webutils.quadratic.budget} system property (1000000 by default), 
+ * they log a rate-limited warning naming the call site. If the {@code webutils.quadratic.mode} system 
+ * property is set to {@code reroute}, they switch to an indexed implementation instead, sorting elements 
+ * with the comparator, which only returns the same results if the comparator imposes a total ordering 
+ * (comparators only telling whether two elements are equal are not supported). If set to {@code off}, 
+ * nothing is done.
  * @author Ahmed Amin Nahhas
  */
 public class CollectionUtils {
@@ -167,17 +177,30 @@ public class CollectionUtils {
         Collection<? extends T> collection,
         Supplier<? extends S> supplier
     ) {
-        
-        if(CollectionUtils.isEmpty(collection))
-            return mutableCopyOf(collection, supplier);
 
-        S suppliedCollection = supplier.get();
-        
-        for(T element : collection)
-            if(!CollectionUtils.containsAny(comparator, suppliedCollection, element))
-                suppliedCollection.add(element);
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            if(CollectionUtils.isEmpty(collection))
+                return copyOf(collection, supplier);
+
+            if(QuadraticGuard.reroute("CollectionUtils.distinct", collection.size(), collection.size()))
+                return IndexedCollections.distinct(comparator, collection, supplier);
+
+            S suppliedCollection = supplier.get();
+
+            for(T element : collection)
+                if(!contains(comparator, suppliedCollection, element))
+                    suppliedCollection.add(element);
+
+            return suppliedCollection;
 
-        return suppliedCollection;
+        } finally {
+            MetricsRecorder.record("CollectionUtils.distinct", start, collection);
+            event.end("CollectionUtils.distinct", comparator, collection, null);
+        }
 
     }
 
@@ -280,24 +303,38 @@ public class CollectionUtils {
      * @return            The specific collection of uncommon elements
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T, S extends Collection<T>> S outerJoin(
         Comparator<? super T> comparator,
         Supplier<? extends S> supplier,
         Collection<? extends T>... collections
     ) {
-        
-        if(collections == null) return null;
 
-        S suppliedCollection = supplier.get();
-        Collection<T> concat = concat(collections);
-        
-        if(isEmpty(concat)) return suppliedCollection;
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            if(collections == null) return null;
+
+            S suppliedCollection = supplier.get();
+            Collection<T> concat = concatOf(ArrayList::new, collections);
+
+            if(isEmpty(concat)) return suppliedCollection;
+
+            if(QuadraticGuard.reroute("CollectionUtils.outerJoin", concat.size(), concat.size()))
+                return IndexedCollections.outerJoin(comparator, suppliedCollection, concat);
 
-        for(T element : concat)
-            if(count(comparator, element, concat) == 1)
-                suppliedCollection.add(element);
+            for(T element : concat)
+                if(countOf(comparator, element, concat) == 1)
+                    suppliedCollection.add(element);
 
-        return suppliedCollection;
+            return suppliedCollection;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.outerJoin", start, collections);
+            event.end("CollectionUtils.outerJoin", comparator, collections);
+        }
 
     }
 
@@ -403,31 +440,42 @@ public class CollectionUtils {
      * @return            The specific collection of common elements
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T,  S extends Collection<T>> S innerJoin(
         Comparator<? super T> comparator, 
         Supplier<? extends S> supplier,
         Collection<? extends T>... collections
     ) {
-        
-        if(collections == null) return null;
-        if(collections.length == 1) return mutableCopyOf(collections[0], supplier);
 
-        Set<T> common = new TreeSet<>(comparator);
-        Set<T> elements = new TreeSet<>(comparator);
-        elements.addAll(collections[0]);
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
 
-        for(var current: elements) {
-            for(var j=1; j<collections.length; j++) {
+            if(collections == null) return null;
+            if(collections.length == 1) return copyOf(collections[0], supplier);
 
-                if(!containsAny(comparator, collections[j], current))
-                    break;
+            Set<T> common = new TreeSet<>(comparator);
+            Set<T> elements = new TreeSet<>(comparator);
+            elements.addAll(collections[0]);
 
-                common.add(current);
-                
+            for(var current: elements) {
+                for(var j=1; j<collections.length; j++) {
+
+                    if(!contains(comparator, collections[j], current))
+                        break;
+
+                    common.add(current);
+
+                }
             }
-        }
 
-        return mutableCopyOf(common, supplier);
+            return copyOf(common, supplier);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.innerJoin", start, collections);
+            event.end("CollectionUtils.innerJoin", comparator, collections);
+        }
 
     }
 
@@ -481,10 +529,18 @@ public class CollectionUtils {
      */
     public static <T> T minOf(Comparator<? super T> comparator, Collection<? extends T> collection) {
 
-        return Stream.ofNullable(collection)
-            .flatMap(Collection::stream)
-            .collect(Collectors.minBy((comparator)))
-            .orElse(null);
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return Stream.ofNullable(collection)
+                .flatMap(Collection::stream)
+                .collect(Collectors.minBy((comparator)))
+                .orElse(null);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.minOf", start, collection);
+        }
 
     }
 
@@ -538,10 +594,18 @@ public class CollectionUtils {
      */
     public static <T> T maxOf(Comparator<? super T> comparator, Collection<? extends T> collection) {
 
-        return Stream.ofNullable(collection)
-            .flatMap(Collection::stream)
-            .collect(Collectors.maxBy(comparator))
-            .orElse(null);
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return Stream.ofNullable(collection)
+                .flatMap(Collection::stream)
+                .collect(Collectors.maxBy(comparator))
+                .orElse(null);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.maxOf", start, collection);
+        }
 
     }
     
@@ -579,10 +643,91 @@ public class CollectionUtils {
         Supplier<? extends S> supplier
     ) {
 
-        return Stream.ofNullable(collection)
-            .flatMap(Collection::stream)
-            .filter(predicate)
-            .collect(Collectors.toCollection(supplier::get));
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return Stream.ofNullable(collection)
+                .flatMap(Collection::stream)
+                .filter(predicate)
+                .collect(Collectors.toCollection(supplier::get));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.filter", start, collection);
+        }
+
+    }
+
+    /**
+     * Filters collection elements using a {@link java.util.function.Predicate} implementation, testing
+     * the elements concurrently. At most maxConcurrency elements are tested at the same time and the
+     * returned collection keeps the iteration order of the input collection. If a test fails, the 
+     * remaining tests are cancelled and the exception is rethrown. On Java 21 and above, each element
+     * is tested on a virtual thread, otherwise a bounded pool of platform threads is used. If the input 
+     * collection is null, an empty collection is returned.
+     * 
+     * @param <T>            The type (or super type) of collection elements
+     * @param collection     Collection to filter
+     * @param predicate      The predicate implementation
+     * @param maxConcurrency Maximum number of elements tested at the same time
+     * @return               Collection of filtered elements
+     * @throws IllegalArgumentException if maxConcurrency is lower than 1
+     */
+    public static <T> Collection<T> filterConcurrent(
+        Collection<? extends T> collection, 
+        Predicate<? super T> predicate,
+        int maxConcurrency
+    ) throws IllegalArgumentException {
+
+        return filterConcurrent(collection, predicate, maxConcurrency, ArrayList::new);
+
+    }
+
+    /**
+     * Filters collection elements using a {@link java.util.function.Predicate} implementation, testing
+     * the elements concurrently. At most maxConcurrency elements are tested at the same time and the
+     * returned collection is filled following the iteration order of the input collection. If a test 
+     * fails, the remaining tests are cancelled and the exception is rethrown. On Java 21 and above, each 
+     * element is tested on a virtual thread, otherwise a bounded pool of platform threads is used. If the 
+     * input collection is null, an empty collection is returned.
+     * 
+     * @param <T>            The type (or super type) of collection elements
+     * @param <S>            The specific type of the collection
+     * @param collection     Collection to filter
+     * @param predicate      The predicate implementation
+     * @param maxConcurrency Maximum number of elements tested at the same time
+     * @param supplier       The supplier of the specific collection
+     * @return               The specific collection of filtered elements
+     * @throws IllegalArgumentException if maxConcurrency is lower than 1
+     */
+    public static <T, S extends Collection<T>> S filterConcurrent(
+        Collection<? extends T> collection, 
+        Predicate<? super T> predicate,
+        int maxConcurrency,
+        Supplier<? extends S> supplier
+    ) throws IllegalArgumentException {
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            Objects.requireNonNull(predicate);
+
+            S suppliedCollection = supplier.get();
+            if(collection == null) return suppliedCollection;
+
+            List<Boolean> matches = ConcurrentMapper.mapAll(collection, predicate::test, maxConcurrency);
+            Iterator<Boolean> iterator = matches.iterator();
+
+            for(T element : collection)
+                if(iterator.next())
+                    suppliedCollection.add(element);
+
+            return suppliedCollection;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.filterConcurrent", start, collection);
+        }
 
     }
 
@@ -597,10 +742,19 @@ public class CollectionUtils {
      */
     public static <T> boolean allMatch(Collection<? extends T> collection, Predicate<? super T> predicate) {
 
-        if(isEmpty(collection))
-            return false;
-            
-        return collection.stream().allMatch(predicate);
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(isEmpty(collection))
+                return false;
+
+            return collection.stream().allMatch(predicate);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.allMatch", start, collection);
+        }
+
     }
 
     /**
@@ -614,10 +768,69 @@ public class CollectionUtils {
      */
     public static <T> long countMatches(Collection<? extends T> collection, Predicate<? super T> predicate) {
 
-        return Stream.of(collection)
-            .flatMap(Collection::stream)
-            .filter(predicate)
-            .count();
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return Stream.of(collection)
+                .flatMap(Collection::stream)
+                .filter(predicate)
+                .count();
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.countMatches", start, collection);
+        }
+
+    }
+
+    /**
+     * Maps the elements of the collection into doubles and records them in a {@link QuantileSketch}
+     * of default accuracy, estimating quantiles like p50, p95 or p99 in bounded memory.
+     * If the collection is empty (or null), an empty sketch is returned.
+     * 
+     * @param <T>        The type (or super type) of collection elements
+     * @param collection Collection which quantiles to estimate
+     * @param mapper     Mapper to transform an element to a double
+     * @return           Quantile sketch of mapped elements
+     */
+    public static <T> QuantileSketch quantiles(Collection<? extends T> collection, ToDoubleFunction<? super T> mapper) {
+        return quantiles(collection, mapper, QuantileSketch.DEFAULT_K);
+    }
+
+    /**
+     * Maps the elements of the collection into doubles and records them in a {@link QuantileSketch}
+     * of accuracy k. If the collection is empty (or null), an empty sketch is returned.
+     * 
+     * @param <T>        The type (or super type) of collection elements
+     * @param collection Collection which quantiles to estimate
+     * @param mapper     Mapper to transform an element to a double
+     * @param k          Accuracy parameter, the rank error is about 1.7 / k
+     * @return           Quantile sketch of mapped elements
+     * @throws IllegalArgumentException if k is lower than {@link QuantileSketch#MIN_K}
+     */
+    public static <T> QuantileSketch quantiles(
+        Collection<? extends T> collection, 
+        ToDoubleFunction<? super T> mapper, 
+        int k
+    ) throws IllegalArgumentException {
+
+        Objects.requireNonNull(mapper);
+        long start = MetricsRecorder.start();
+
+        try {
+
+            QuantileSketch sketch = new QuantileSketch(k);
+            if(isEmpty(collection))
+                return sketch;
+
+            for(T element : collection)
+                sketch.accept(mapper.applyAsDouble(element));
+
+            return sketch;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.quantiles", start, collection);
+        }
 
     }
 
@@ -649,18 +862,27 @@ public class CollectionUtils {
      * @return            Merged collections
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T, S extends Collection<T>> S merge(
         Supplier<? extends S> supplier, 
         Collection<? extends T>... collections
     ) {
 
-        if(collections == null)
-            return null;
+        long start = MetricsRecorder.start();
 
-        return Stream.of(collections)
-            .filter(Objects::nonNull)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toCollection(supplier::get));
+        try {
+
+            if(collections == null)
+                return null;
+
+            return Stream.of(collections)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toCollection(supplier::get));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.merge", start, collections);
+        }
 
     }
 
@@ -715,12 +937,18 @@ public class CollectionUtils {
      */
     public static <T> long count(Comparator<? super T> comparator, T object, Collection<? extends T> collection) {
 
-        return Stream.ofNullable(collection)
-            .filter(Objects::nonNull)
-            .flatMap(Collection::stream)
-            .filter((final var element) -> comparator.compare(element, object) == 0)
-            .count();
-            
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            return countOf(comparator, object, collection);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.count", start, collection);
+            event.end("CollectionUtils.count", comparator, collection, null);
+        }
+
     }
 
     /**
@@ -780,12 +1008,25 @@ public class CollectionUtils {
         final Collection<? extends T> container
     ) {
 
-        if(isEmpty(collection) || isEmpty(container))
-            return false;
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
 
-        return collection.stream()
-            .anyMatch((final var element) -> container.stream()
-                .anyMatch(object -> comparator.compare(element, object) == 0));
+        try {
+
+            if(isEmpty(collection) || isEmpty(container))
+                return false;
+
+            if(QuadraticGuard.reroute("CollectionUtils.containsAny", collection.size(), container.size()))
+                return IndexedCollections.containsAny(comparator, collection, container);
+
+            return collection.stream()
+                .anyMatch((final var element) -> container.stream()
+                    .anyMatch(object -> comparator.compare(element, object) == 0));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.containsAny", start, collection, container);
+            event.end("CollectionUtils.containsAny", comparator, collection, container);
+        }
 
     }
 
@@ -911,12 +1152,25 @@ public class CollectionUtils {
     public static <T> boolean containsAll(final Comparator<? super T> comparator, 
         final Collection<? extends T> collection, final Collection<? extends T> container) {
 
-        if(isEmpty(collection) || isEmpty(container))
-            return false;
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            if(isEmpty(collection) || isEmpty(container))
+                return false;
 
-        return container.stream()
-            .filter((final var element) -> containsAny(comparator, collection, element))
-            .count() == container.size();
+            if(QuadraticGuard.reroute("CollectionUtils.containsAll", collection.size(), container.size()))
+                return IndexedCollections.containsAll(comparator, collection, container);
+
+            return container.stream()
+                .filter((final var element) -> contains(comparator, collection, element))
+                .count() == container.size();
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.containsAll", start, collection, container);
+            event.end("CollectionUtils.containsAll", comparator, collection, container);
+        }
 
     }
 
@@ -1037,26 +1291,34 @@ public class CollectionUtils {
         Supplier<? extends S> supplier
     ) {
 
-        Objects.requireNonNull(combiner);
+        long start = MetricsRecorder.start();
 
-        if(left == null && right == null) return null;
-        
-        S collection = supplier.get();
-        var iterL = ofMappable(left, Collection::iterator);
-        var iterR = ofMappable(right, Collection::iterator);
-        boolean hasNextL = false, hasNextR = false;
-            
-        while((hasNextL = ofMappable(iterL, Iterator::hasNext)) | 
-                (hasNextR = ofMappable(iterR, Iterator::hasNext))) {
+        try {
 
-            var nextL = ofSupplied(() -> iterL.next(), hasNextL);
-            var nextR = ofSupplied(() -> iterR.next(), hasNextR);
+            Objects.requireNonNull(combiner);
 
-            collection.add(combiner.apply(nextL, nextR));
-            
-        }
+            if(left == null && right == null) return null;
+
+            S collection = supplier.get();
+            var iterL = ofMappable(left, Collection::iterator);
+            var iterR = ofMappable(right, Collection::iterator);
+            boolean hasNextL = false, hasNextR = false;
+
+            while((hasNextL = ofMappable(iterL, Iterator::hasNext)) | 
+                    (hasNextR = ofMappable(iterR, Iterator::hasNext))) {
+
+                var nextL = ofSupplied(() -> iterL.next(), hasNextL);
+                var nextR = ofSupplied(() -> iterR.next(), hasNextR);
+
+                collection.add(combiner.apply(nextL, nextR));
+
+            }
 
-        return collection;
+            return collection;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.merge", start, left, right);
+        }
 
     }
 
@@ -1086,18 +1348,22 @@ public class CollectionUtils {
      * @return            Collection of concatenated collections
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T, S extends Collection<T>> S concat(
         Supplier<? extends S> supplier,
         Collection<? extends T>... collections
     ) {
 
-        if(collections == null) return null;
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return concatOf(supplier, collections);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.concat", start, collections);
+        }
 
-        return Stream.of(collections)
-            .filter(Objects::nonNull)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toCollection(supplier::get));
-            
     }
 
     /**
@@ -1114,16 +1380,25 @@ public class CollectionUtils {
      * @throws NullPointerException if the mapper tries to map a null key to a null value
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T, U extends Comparable<? super U>> Map<U, List<T>> groupByIdentity(
         Function<? super T, ? extends U> identity,
         Collection<? extends T>... collections
     ) throws NullPointerException {
 
-        return Stream.ofNullable(concat(collections))
-            .flatMap(Collection::stream)
-            .collect(Collectors.groupingBy(identity, 
-                () -> new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder())), 
-                Collectors.toCollection(ArrayList::new)));
+        long start = MetricsRecorder.start();
+
+        try {
+
+            return Stream.ofNullable(concatOf(ArrayList::new, collections))
+                .flatMap(Collection::stream)
+                .collect(Collectors.groupingBy(identity, 
+                    () -> new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder())), 
+                    Collectors.toCollection(ArrayList::new)));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.groupByIdentity", start, collections);
+        }
 
     }
 
@@ -1279,14 +1554,91 @@ public class CollectionUtils {
         Supplier<? extends S> supplier
     ) {
 
-        if(collection == null) return null;
+        long start = MetricsRecorder.start();
 
-        return collection.stream()
-            .map(mapper)
-            .collect(Collectors.toCollection(supplier::get));
+        try {
+
+            return mapOf(collection, mapper, supplier);
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.mapElements", start, collection);
+        }
+
+    }
+
+    /**
+     * Returns a shallow copy of mapped elements of input collection using a 
+     * {@link java.util.function.Function} implementation mapper, mapping the elements
+     * concurrently. At most maxConcurrency elements are mapped at the same time and the
+     * returned collection keeps the iteration order of the input collection. If a mapping 
+     * fails, the remaining mappings are cancelled and the exception is rethrown. On Java 21
+     * and above, each element is mapped on a virtual thread, otherwise a bounded pool of
+     * platform threads is used. If the input collection is null then a null reference is returned.
+     * 
+     * @param <T>            The type (or super type) of the collection elements
+     * @param <U>            The type mapped by the identity mapper
+     * @param collection     Collection to map
+     * @param mapper         The mapper function
+     * @param maxConcurrency Maximum number of elements mapped at the same time
+     * @return               Collection of mapped elements
+     * @throws IllegalArgumentException if maxConcurrency is lower than 1
+    */
+    public static <T, U> Collection<U> mapElementsConcurrent(
+        Collection<? extends T> collection, 
+        Function<? super T, ? extends U> mapper,
+        int maxConcurrency
+    ) throws IllegalArgumentException {
+
+        return mapElementsConcurrent(collection, mapper, maxConcurrency, ArrayList::new);
             
     }
 
+    /**
+     * Returns a shallow copy of mapped elements of input collection using a 
+     * {@link java.util.function.Function} implementation mapper, mapping the elements
+     * concurrently. At most maxConcurrency elements are mapped at the same time and the
+     * returned collection is filled following the iteration order of the input collection. 
+     * If a mapping fails, the remaining mappings are cancelled and the exception is rethrown. 
+     * On Java 21 and above, each element is mapped on a virtual thread, otherwise a bounded 
+     * pool of platform threads is used. If the input collection is null then a null reference 
+     * is returned.
+     * 
+     * @param <T>            The type (or super type) of the collection elements
+     * @param <U>            The type mapped by the identity mapper
+     * @param <S>            The specific type of the collection
+     * @param collection     Collection to map
+     * @param mapper         The mapper function
+     * @param maxConcurrency Maximum number of elements mapped at the same time
+     * @param supplier       The supplier of the specific collection
+     * @return               The specific collection of mapped elements
+     * @throws IllegalArgumentException if maxConcurrency is lower than 1
+    */
+    public static <T, U, S extends Collection<U>> S mapElementsConcurrent(
+        Collection<? extends T> collection, 
+        Function<? super T, ? extends U> mapper,
+        int maxConcurrency,
+        Supplier<? extends S> supplier
+    ) throws IllegalArgumentException {
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            Objects.requireNonNull(mapper);
+
+            if(collection == null) return null;
+
+            S suppliedCollection = supplier.get();
+            suppliedCollection.addAll(ConcurrentMapper.mapAll(collection, mapper, maxConcurrency));
+
+            return suppliedCollection;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.mapElementsConcurrent", start, collection);
+        }
+
+    }
+
     /**
      * Returns any element from the collection. If collection is null then
      * a null reference is returned.
@@ -1297,13 +1649,7 @@ public class CollectionUtils {
      */
     public static <T> T anyElement(Collection<? extends T> collection) {
 
-        if(collection == null) return null;
-
-        return collection.stream()
-            .map(Optional::ofNullable)
-            .findAny()
-            .orElse(Optional.empty())
-            .orElse(null);
+        return firstOf(collection);
     }
 
     /**
@@ -1316,13 +1662,7 @@ public class CollectionUtils {
      */
     public static <T> T firstElement(Collection<? extends T> collection) {
 
-        if(collection == null) return null;
-
-        return collection.stream()
-            .map(Optional::ofNullable)
-            .findFirst()
-            .orElse(Optional.empty())
-            .orElse(null);
+        return firstOf(collection);
     }
 
     /**
@@ -1336,13 +1676,21 @@ public class CollectionUtils {
      */
     public static <T> T firstCompliant(Collection<? extends T> collection, Predicate<? super T> predicate) {
 
-        return Stream.ofNullable(collection)
-            .flatMap(Collection::stream)
-            .filter(predicate)
-            .map(Optional::ofNullable)
-            .findFirst()
-            .orElse(Optional.empty())
-            .orElse(null);
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(collection == null) return null;
+
+            for(T element : collection)
+                if(predicate.test(element))
+                    return element;
+
+            return null;
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.firstCompliant", start, collection);
+        }
 
     }
 
@@ -1365,13 +1713,26 @@ public class CollectionUtils {
         Collection<? extends T> elements
     ) {
 
-        return Stream.ofNullable(reference)
-            .flatMap(Collection::stream)
-            .filter(refElement -> Stream.ofNullable(elements)
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            if(QuadraticGuard.reroute("CollectionUtils.compliant", sizeOf(reference), sizeOf(elements)))
+                return IndexedCollections.compliant(supplier, comparator, reference, elements, true);
+
+            return Stream.ofNullable(reference)
                 .flatMap(Collection::stream)
-                .anyMatch(element -> comparator.compare(element, refElement) == 0)
-            )
-            .collect(Collectors.toCollection(supplier));
+                .filter(refElement -> Stream.ofNullable(elements)
+                    .flatMap(Collection::stream)
+                    .anyMatch(element -> comparator.compare(element, refElement) == 0)
+                )
+                .collect(Collectors.toCollection(supplier));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.compliant", start, reference, elements);
+            event.end("CollectionUtils.compliant", comparator, reference, elements);
+        }
 
     }
 
@@ -1473,13 +1834,26 @@ public class CollectionUtils {
         Collection<? extends T> collection
     ) {
 
-        return Stream.ofNullable(reference)
-            .flatMap(Collection::stream)
-            .filter(refElement -> Stream.ofNullable(collection)
+        long start = MetricsRecorder.start();
+        CollectionOperationEvent event = CollectionOperationEvent.start();
+
+        try {
+
+            if(QuadraticGuard.reroute("CollectionUtils.nonCompliant", sizeOf(reference), sizeOf(collection)))
+                return IndexedCollections.compliant(supplier, comparator, reference, collection, false);
+
+            return Stream.ofNullable(reference)
                 .flatMap(Collection::stream)
-                .allMatch(element -> comparator.compare(element, refElement) != 0)
-            )
-            .collect(Collectors.toCollection(supplier));
+                .filter(refElement -> Stream.ofNullable(collection)
+                    .flatMap(Collection::stream)
+                    .allMatch(element -> comparator.compare(element, refElement) != 0)
+                )
+                .collect(Collectors.toCollection(supplier));
+
+        } finally {
+            MetricsRecorder.record("CollectionUtils.nonCompliant", start, reference, collection);
+            event.end("CollectionUtils.nonCompliant", comparator, reference, collection);
+        }
 
     }
 
@@ -1546,4 +1920,82 @@ public class CollectionUtils {
 
     }
 
+    /*************************** API PRIVATE METHODS ***************************/
+
+    //the helpers below are not instrumented, so an operation records a single call whatever it uses
+
+    private static <T> boolean contains(Comparator<? super T> comparator, Collection<? extends T> collection, T object) {
+
+        if(collection == null) return false;
+
+        for(T element : collection)
+            if(comparator.compare(element, object) == 0)
+                return true;
+
+        return false;
+
+    }
+
+    private static <T> long countOf(Comparator<? super T> comparator, T object, Collection<? extends T> collection) {
+
+        if(collection == null) return 0;
+
+        long count = 0;
+        for(T element : collection)
+            if(comparator.compare(element, object) == 0)
+                count++;
+
+        return count;
+
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    private static <T, S extends Collection<T>> S concatOf(Supplier<? extends S> supplier, Collection<? extends T>... collections) {
+
+        if(collections == null) return null;
+
+        return Stream.of(collections)
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .collect(Collectors.toCollection(supplier::get));
+
+    }
+
+    private static <T, S extends Collection<T>> S copyOf(Collection<? extends T> collection, Supplier<? extends S> supplier) {
+        return mapOf(collection, Function.identity(), supplier);
+    }
+
+    private static <T, U, S extends Collection<U>> S mapOf(
+        Collection<? extends T> collection, 
+        Function<? super T, ? extends U> mapper,
+        Supplier<? extends S> supplier
+    ) {
+
+        if(collection == null) return null;
+
+        return collection.stream()
+            .map(mapper)
+            .collect(Collectors.toCollection(supplier::get));
+
+    }
+
+    private static int sizeOf(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+
+    private static <T> T firstOf(Collection<? extends T> collection) {
+
+        if(collection == null) return null;
+
+        if(collection instanceof List && collection instanceof RandomAccess) {
+            List<? extends T> list = (List<? extends T>) collection;
+            return list.isEmpty() ? null : list.get(0);
+        }
+
+        Iterator<? extends T> iterator = collection.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+
+    }
+
 }
@@ -0,0 +1,205 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Concurrent {@link java.util.stream.Collector} implementations for parallel Streams. Their result
+ * container is shared by every thread of an unordered parallel Stream, so no partial result has to be
+ * merged. Grouping accumulates into stripes, each thread mostly accumulating into its own stripe under
+ * an uncontended lock, and stripes are only merged at finish time. Keys are sorted at finish time,
+ * and only when a comparator is given.
+ * @author Ahmed Amin Nahhas
+ */
+final class ConcurrentCollectors {
+
+    //characteristics of every collector, the result does not depend on encounter order
+    private static final Set<Collector.Characteristics> CHARACTERISTICS =
+        EnumSet.of(Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+
+    //stands for null keys and elements, concurrent maps do not accept null
+    private static final Object NULL = new Object();
+
+    //maximum number of stripes of a grouping
+    private static final int MAX_STRIPES = 64;
+
+    //number of stripes of a grouping, a power of two
+    private static final int STRIPES = Math.min(MAX_STRIPES,
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1));
+
+    private ConcurrentCollectors() {}
+
+    /**
+     * Returns a Collector keeping a single element for each key, in no particular order or sorted by
+     * key if a comparator is given.
+     *
+     * @param <T>        Type of collected elements
+     * @param <K>        Type of keys
+     * @param keyMapper  Mapper to transform an element to its key
+     * @param comparator Comparator sorting the keys, or null to keep them unsorted
+     * @return           Concurrent Collector of distinct elements by key
+     */
+    static <T, K> Collector<T, ?, List<T>> distinctByKey(Function<? super T, ? extends K> keyMapper,
+        Comparator<? super K> comparator) {
+
+        BiConsumer<ConcurrentHashMap<Object, Object>, T> accumulator = (map, element) ->
+            map.putIfAbsent(mask(keyMapper.apply(element)), mask(element));
+
+        BinaryOperator<ConcurrentHashMap<Object, Object>> combiner = (map, other) -> {
+
+            other.forEach(map::putIfAbsent);
+            return map;
+
+        };
+
+        return Collector.of(ConcurrentHashMap::new, accumulator, combiner,
+            map -> distinctElements(map, comparator),
+            CHARACTERISTICS.toArray(new Collector.Characteristics[0]));
+
+    }
+
+    /**
+     * Returns a Collector grouping elements by key with a downstream Collector, into a Map in no
+     * particular order or sorted by key if a comparator is given.
+     *
+     * @param <T>        Type of collected elements
+     * @param <K>        Type of keys
+     * @param <A>        Intermediate type of the downstream Collector
+     * @param <D>        Result type of the downstream Collector
+     * @param keyMapper  Mapper to transform an element to its key
+     * @param comparator Comparator sorting the keys, or null to keep them unsorted
+     * @param downstream Collector of the elements of a key
+     * @return           Concurrent Collector grouping elements by key
+     */
+    static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> keyMapper,
+        Comparator<? super K> comparator, Collector<? super T, A, D> downstream) {
+
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+
+        return Collector.of(() -> new Stripes<K, A>(),
+            (stripes, element) -> stripes.accumulate(keyMapper.apply(element), element, supplier, accumulator),
+            (stripes, other) -> stripes.merge(other, downstream),
+            stripes -> stripes.finish(comparator, downstream),
+            CHARACTERISTICS.toArray(new Collector.Characteristics[0]));
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static Object mask(Object value) {
+        return value == null ? NULL : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object value) {
+        return value == NULL ? null : (T) value;
+    }
+
+    private static <T, K> List<T> distinctElements(Map<Object, Object> map, Comparator<? super K> comparator) {
+
+        List<T> elements = new ArrayList<>(map.size());
+
+        if(comparator == null) {
+
+            for(Object element : map.values())
+                elements.add(unmask(element));
+
+            return elements;
+
+        }
+
+        List<Map.Entry<Object, Object>> entries = new ArrayList<>(map.entrySet());
+        entries.sort((first, second) -> comparator.compare(unmask(first.getKey()), unmask(second.getKey())));
+
+        for(Map.Entry<Object, Object> entry : entries)
+            elements.add(unmask(entry.getValue()));
+
+        return elements;
+
+    }
+
+    private static int stripeIndex() {
+
+        int hash = System.identityHashCode(Thread.currentThread());
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+
+    }
+
+    private static final class Stripes<K, A> {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Map<K, A>[] maps = new Map[STRIPES];
+
+        private Stripes() {
+
+            for(int i=0; i<STRIPES; i++)
+                maps[i] = new HashMap<>();
+
+        }
+
+        private <T> void accumulate(K key, T element, Supplier<A> supplier, BiConsumer<A, ? super T> accumulator) {
+
+            Map<K, A> map = maps[stripeIndex()];
+
+            synchronized(map) {
+
+                A container = map.get(key);
+                if(container == null) {
+                    container = supplier.get();
+                    map.put(key, container);
+                }
+
+                accumulator.accept(container, element);
+
+            }
+
+        }
+
+        private Stripes<K, A> merge(Stripes<K, A> other, Collector<?, A, ?> downstream) {
+
+            for(Map<K, A> map : other.maps)
+                mergeInto(maps[0], map, downstream);
+
+            return this;
+
+        }
+
+        private <D> Map<K, D> finish(Comparator<? super K> comparator, Collector<?, A, D> downstream) {
+
+            Map<K, A> merged = maps[0];
+            for(int i=1; i<STRIPES; i++)
+                mergeInto(merged, maps[i], downstream);
+
+            Map<K, D> result = comparator == null ? new HashMap<>(merged.size() * 4 / 3 + 1) : new TreeMap<>(comparator);
+            Function<A, D> finisher = downstream.finisher();
+            for(Map.Entry<K, A> entry : merged.entrySet())
+                result.put(entry.getKey(), finisher.apply(entry.getValue()));
+
+            return result;
+
+        }
+
+        private static <K, A> void mergeInto(Map<K, A> target, Map<K, A> source, Collector<?, A, ?> downstream) {
+
+            BinaryOperator<A> combiner = downstream.combiner();
+            for(Map.Entry<K, A> entry : source.entrySet())
+                target.merge(entry.getKey(), entry.getValue(), combiner);
+
+        }
+
+    }
+
+}
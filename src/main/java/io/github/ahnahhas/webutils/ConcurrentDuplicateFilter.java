@@ -0,0 +1,163 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe {@link java.util.function.Predicate} filtering out duplicate elements, safe to use on
+ * parallel streams. Seen elements are kept in a {@link java.util.concurrent.ConcurrentSkipListMap}
+ * ordered by the comparator. Memory can be bounded by a maximum number of elements, evicting the least
+ * recently seen element, or by a time window, forgetting elements accepted longer than the window ago.
+ * Eviction order is approximate when elements are tested concurrently. Unbounded filters only keep
+ * the seen elements, without the bookkeeping of their order.
+ * @author Ahmed Amin Nahhas
+ */
+final class ConcurrentDuplicateFilter<T> implements Predicate<T> {
+
+    //stands for null, skip list maps do not accept null keys
+    private static final Object NULL_KEY = new Object();
+
+    //sequence of every element of unbounded filters, which do not order them
+    private static final Long NO_SEQUENCE = 0L;
+
+    //seen elements, mapped to the sequence of their entry in order
+    private final ConcurrentSkipListMap<Object, Long> keys;
+
+    //seen elements by sequence, oldest first
+    private final ConcurrentSkipListMap<Long, Stamp> order = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxElements;
+    private final long windowNanos;
+    private final boolean refreshOnHit;
+    private final boolean bounded;
+
+    private ConcurrentDuplicateFilter(Comparator<? super T> comparator, int maxElements, long windowNanos,
+        boolean refreshOnHit) {
+
+        this.keys = new ConcurrentSkipListMap<>((left, right) -> comparator.compare(unmask(left), unmask(right)));
+        this.maxElements = maxElements;
+        this.windowNanos = windowNanos;
+        this.refreshOnHit = refreshOnHit;
+        this.bounded = maxElements != Integer.MAX_VALUE || windowNanos != Long.MAX_VALUE;
+
+    }
+
+    /**
+     * Returns an unbounded filter.
+     *
+     * @param <T>        Type of the filtered elements
+     * @param comparator The comparator implementation
+     * @return           Unbounded filter
+     */
+    static <T> ConcurrentDuplicateFilter<T> unbounded(Comparator<? super T> comparator) {
+        return new ConcurrentDuplicateFilter<>(comparator, Integer.MAX_VALUE, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Returns a filter keeping at most maxElements elements, evicting the least recently seen one.
+     *
+     * @param <T>         Type of the filtered elements
+     * @param comparator  The comparator implementation
+     * @param maxElements Maximum number of remembered elements
+     * @return            Bounded filter
+     */
+    static <T> ConcurrentDuplicateFilter<T> lru(Comparator<? super T> comparator, int maxElements) {
+        return new ConcurrentDuplicateFilter<>(comparator, maxElements, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Returns a filter forgetting elements accepted longer than windowNanos ago.
+     *
+     * @param <T>         Type of the filtered elements
+     * @param comparator  The comparator implementation
+     * @param windowNanos Time window in nanoseconds
+     * @return            Time window filter
+     */
+    static <T> ConcurrentDuplicateFilter<T> window(Comparator<? super T> comparator, long windowNanos) {
+        return new ConcurrentDuplicateFilter<>(comparator, Integer.MAX_VALUE, windowNanos, false);
+    }
+
+    @Override
+    public boolean test(T element) {
+
+        Object key = element == null ? NULL_KEY : element;
+        if(!bounded) return keys.putIfAbsent(key, NO_SEQUENCE) == null;
+
+        long now = windowNanos == Long.MAX_VALUE ? 0L : System.nanoTime();
+        expire(now);
+
+        long seq = sequence.incrementAndGet();
+        Long previous = keys.putIfAbsent(key, seq);
+
+        if(previous == null) {
+
+            order.put(seq, new Stamp(key, now));
+            if(size.incrementAndGet() > maxElements)
+                evict();
+
+            return true;
+
+        }
+
+        if(refreshOnHit && keys.replace(key, previous, seq)) {
+            order.remove(previous);
+            order.put(seq, new Stamp(key, now));
+        }
+
+        return false;
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object key) {
+        return key == NULL_KEY ? null : (T) key;
+    }
+
+    private void expire(long now) {
+
+        if(windowNanos == Long.MAX_VALUE) return;
+
+        Map.Entry<Long, Stamp> oldest;
+        while((oldest = order.firstEntry()) != null && now - oldest.getValue().nanos >= windowNanos)
+            if(order.remove(oldest.getKey(), oldest.getValue()))
+                forget(oldest);
+
+    }
+
+    private void evict() {
+
+        Map.Entry<Long, Stamp> oldest;
+        while(size.get() > maxElements && (oldest = order.pollFirstEntry()) != null)
+            forget(oldest);
+
+    }
+
+    private void forget(Map.Entry<Long, Stamp> entry) {
+
+        //fails if the element was seen again since, its newer entry is kept
+        if(keys.remove(entry.getValue().key, entry.getKey()))
+            size.decrementAndGet();
+
+    }
+
+    private static final class Stamp {
+
+        private final Object key;
+        private final long nanos;
+
+        private Stamp(Object key, long nanos) {
+            this.key = key;
+            this.nanos = nanos;
+        }
+
+    }
+
+}
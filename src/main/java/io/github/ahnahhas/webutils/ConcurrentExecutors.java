@@ -0,0 +1,45 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of the {@link java.util.concurrent.ExecutorService} used by the concurrent
+ * utility methods. This Java 11 implementation relies on a bounded pool of daemon
+ * platform threads. A Java 21 implementation relying on virtual threads is provided
+ * in the versioned layer of the multi-release JAR.
+ * @author Ahmed Amin Nahhas
+ */
+final class ConcurrentExecutors {
+
+    //thread name prefix
+    private static final String THREAD_PREFIX = "webutils-concurrent-";
+
+    //thread counter
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private ConcurrentExecutors() {}
+
+    /**
+     * Returns a new {@link java.util.concurrent.ExecutorService} running at most
+     * parallelism tasks at the same time.
+     *
+     * @param parallelism Maximum number of tasks running at the same time
+     * @return            New ExecutorService
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, ConcurrentExecutors::newDaemonThread);
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static Thread newDaemonThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, THREAD_PREFIX + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Maps the elements of a {@link java.util.Collection} concurrently, keeping at most a fixed
+ * number of mappings in flight. Results keep the iteration order of the input collection.
+ * The first failing mapping cancels the remaining ones and its exception is rethrown to the caller.
+ * @author Ahmed Amin Nahhas
+ */
+final class ConcurrentMapper {
+
+    private ConcurrentMapper() {}
+
+    /**
+     * Maps every element of the collection with at most maxConcurrency mappings running
+     * at the same time, and returns the mapped elements in iteration order.
+     *
+     * @param <T>            The type (or super type) of the collection elements
+     * @param <U>            The type mapped by the mapper
+     * @param collection     Collection to map
+     * @param mapper         The mapper function
+     * @param maxConcurrency Maximum number of mappings running at the same time
+     * @return               List of mapped elements
+     * @throws IllegalArgumentException if maxConcurrency is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    static <T, U> List<U> mapAll(
+        Collection<? extends T> collection,
+        Function<? super T, ? extends U> mapper,
+        int maxConcurrency
+    ) {
+
+        if(maxConcurrency < 1)
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+
+        int size = collection.size();
+        if(size == 0) return new ArrayList<>(0);
+
+        if(maxConcurrency == 1 || size == 1) {
+
+            List<U> mapped = new ArrayList<>(size);
+            for(T element : collection)
+                mapped.add(mapper.apply(element));
+
+            return mapped;
+
+        }
+
+        int parallelism = Math.min(maxConcurrency, size);
+        ExecutorService executor = ConcurrentExecutors.newExecutor(parallelism);
+
+        try {
+            return mapAll(executor, collection, mapper, parallelism);
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Returns the unchecked exception to rethrow for the failure of a task. Runtime exceptions
+     * are returned as is, errors are thrown, and checked exceptions are wrapped.
+     *
+     * @param cause Failure of the task
+     * @return      Exception to throw
+     */
+    static RuntimeException rethrow(Throwable cause) {
+
+        if(cause instanceof RuntimeException) return (RuntimeException) cause;
+        if(cause instanceof Error) throw (Error) cause;
+        return new CompletionException(cause);
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    @SuppressWarnings("unchecked")
+    private static <T, U> List<U> mapAll(
+        ExecutorService executor,
+        Collection<? extends T> collection,
+        Function<? super T, ? extends U> mapper,
+        int parallelism
+    ) {
+
+        int size = collection.size();
+        Object[] results = new Object[size];
+        List<Future<Void>> futures = new ArrayList<>(size);
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        Iterator<? extends T> iterator = collection.iterator();
+
+        while(futures.size() < parallelism)
+            submit(completion, futures, iterator.next(), mapper, results);
+
+        try {
+
+            for(int done = 0; done < size; done++) {
+
+                completion.take().get();
+
+                if(iterator.hasNext())
+                    submit(completion, futures, iterator.next(), mapper, results);
+
+            }
+
+        } catch(ExecutionException e) {
+
+            cancelAll(futures);
+            throw rethrow(e.getCause());
+
+        } catch(InterruptedException e) {
+
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for concurrent mappings");
+
+        }
+
+        return (List<U>) Arrays.asList(results);
+
+    }
+
+    private static <T, U> void submit(
+        CompletionService<Void> completion,
+        List<Future<Void>> futures,
+        T element,
+        Function<? super T, ? extends U> mapper,
+        Object[] results
+    ) {
+
+        final int index = futures.size();
+        futures.add(completion.submit(() -> {
+            results[index] = mapper.apply(element);
+            return null;
+        }));
+
+    }
+
+    private static void cancelAll(List<Future<Void>> futures) {
+        for(Future<Void> future : futures)
+            future.cancel(true);
+    }
+
+}
@@ -0,0 +1,153 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Mutable single-pass statistics of double values: count, sum, minimum, maximum, mean and
+ * variance. The sum is compensated (Kahan-Babuska summation) to limit rounding errors, and the
+ * mean and variance are updated with Welford's algorithm. Instances computed on parallel splits
+ * are merged with {@link #combine(DoubleStatistics)}. Not thread-safe, like
+ * {@link java.util.DoubleSummaryStatistics}.
+ * @author Ahmed Amin Nahhas
+ */
+public final class DoubleStatistics implements DoubleConsumer {
+
+    private long count;
+    private double sum;
+    private double compensation;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * Records a double value.
+     *
+     * @param value Value to record
+     */
+    @Override
+    public void accept(double value) {
+
+        addToSum(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        double delta = value - mean;
+        mean += delta / ++count;
+        squaredDeviations += delta * (value - mean);
+
+    }
+
+    /**
+     * Merges the statistics of other into this one.
+     *
+     * @param other Statistics to merge
+     * @return      This instance
+     */
+    public DoubleStatistics combine(DoubleStatistics other) {
+
+        if(other.count == 0) return this;
+
+        if(count == 0) {
+
+            count = other.count;
+            sum = other.sum;
+            compensation = other.compensation;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            squaredDeviations = other.squaredDeviations;
+            return this;
+
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+
+        addToSum(other.sum);
+        addToSum(other.compensation);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * ((double) count * other.count / total);
+        count = total;
+
+        return this;
+
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Compensated sum of the recorded values, or 0.0 if there are none
+     */
+    public double getSum() {
+
+        double total = sum + compensation;
+
+        //infinite values make the compensation NaN, the naive sum is right
+        return Double.isNaN(total) && Double.isInfinite(sum) ? sum : total;
+
+    }
+
+    /**
+     * @return Minimum recorded value, or Double.POSITIVE_INFINITY if there are none
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return Maximum recorded value, or Double.NEGATIVE_INFINITY if there are none
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return Arithmetic mean of the recorded values, or 0.0 if there are none
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : getSum() / count;
+    }
+
+    /**
+     * @return Population variance of the recorded values, or 0.0 if there are none
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : squaredDeviations / count;
+    }
+
+    /**
+     * @return Sample variance of the recorded values, or 0.0 if there are less than two
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : squaredDeviations / (count - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleStatistics[count=" + count + ", sum=" + getSum() + ", min=" + min + ", max=" + max
+            + ", mean=" + getMean() + ", variance=" + getVariance() + "]";
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private void addToSum(double value) {
+
+        double total = sum + value;
+        if(Math.abs(sum) >= Math.abs(value))
+            compensation += (sum - total) + value;
+        else
+            compensation += (value - total) + sum;
+
+        sum = total;
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package io.github.ahnahhas.webutils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of elements, used to spill elements to temporary files, like the sorted runs of
+ * {@link StreamUtils#sortedExternal(java.util.stream.Stream, java.util.Comparator, ElementCodec, int)}.
+ * An element read back must be equal to the element written. The provided codecs do not accept null
+ * elements.
+ *
+ * @param <T> Type of the encoded elements
+ * @author Ahmed Amin Nahhas
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes an element.
+     *
+     * @param element Element to write
+     * @param output  Output to write to
+     * @throws IOException if the output cannot be written
+     */
+    void write(T element, DataOutput output) throws IOException;
+
+    /**
+     * Reads an element written by {@link #write(Object, DataOutput)}.
+     *
+     * @param input Input to read from
+     * @return      Element read
+     * @throws IOException if the input cannot be read
+     */
+    T read(DataInput input) throws IOException;
+
+    /**
+     * Returns a codec of Strings of any length, encoded in UTF-8 after their length in bytes.
+     *
+     * @return String codec
+     */
+    static ElementCodec<String> strings() {
+
+        return new ElementCodec<String>() {
+
+            @Override
+            public void write(String element, DataOutput output) throws IOException {
+
+                byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+
+            }
+
+            @Override
+            public String read(DataInput input) throws IOException {
+
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+
+            }
+
+        };
+
+    }
+
+    /**
+     * Returns a codec of Integers.
+     *
+     * @return Integer codec
+     */
+    static ElementCodec<Integer> integers() {
+
+        return new ElementCodec<Integer>() {
+
+            @Override
+            public void write(Integer element, DataOutput output) throws IOException {
+                output.writeInt(element);
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                return input.readInt();
+            }
+
+        };
+
+    }
+
+    /**
+     * Returns a codec of Longs.
+     *
+     * @return Long codec
+     */
+    static ElementCodec<Long> longs() {
+
+        return new ElementCodec<Long>() {
+
+            @Override
+            public void write(Long element, DataOutput output) throws IOException {
+                output.writeLong(element);
+            }
+
+            @Override
+            public Long read(DataInput input) throws IOException {
+                return input.readLong();
+            }
+
+        };
+
+    }
+
+}
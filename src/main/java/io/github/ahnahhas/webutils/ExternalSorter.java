@@ -0,0 +1,253 @@
+package io.github.ahnahhas.webutils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorts more elements than the heap can hold. Elements are sorted in memory by batches of at most
+ * heapBudget elements, each full batch being written as a sorted run to a temporary file with an
+ * {@link ElementCodec}. The runs and the last batch are then merged lazily by a
+ * {@link SortedMergeIterator}, reading each run sequentially. At most 64 sources are merged at once:
+ * with more runs, consecutive runs are first merged by groups of 64 into longer runs, until few
+ * enough runs are left, so open files and read buffers stay bounded. The sort is stable. Run files
+ * are deleted once read, or when the sorter is closed.
+ * @author Ahmed Amin Nahhas
+ */
+final class ExternalSorter<T> implements Closeable {
+
+    //prefix of the run files in the temporary directory
+    private static final String RUN_PREFIX = "webutils-sort-";
+
+    //buffer size of run files
+    private static final int IO_BUFFER = 1 << 16;
+
+    //maximum number of sources merged at once
+    private static final int MAX_FAN_IN = 64;
+
+    //total size of the read buffers of the runs merged at once
+    private static final int MERGE_BUFFER = 1 << 20;
+
+    private final Comparator<? super T> comparator;
+    private final ElementCodec<T> codec;
+    private final int heapBudget;
+    private final boolean distinct;
+    private final List<Run> runs = new ArrayList<>();
+
+    /**
+     * Returns a sorter keeping at most heapBudget elements in heap while sorting.
+     *
+     * @param comparator Comparator sorting the elements
+     * @param codec      Codec writing and reading runs
+     * @param heapBudget Maximum number of elements sorted in heap at once
+     * @param distinct   Boolean to filter out duplicate elements according to the comparator
+     */
+    ExternalSorter(Comparator<? super T> comparator, ElementCodec<T> codec, int heapBudget, boolean distinct) {
+
+        this.comparator = comparator;
+        this.codec = codec;
+        this.heapBudget = heapBudget;
+        this.distinct = distinct;
+
+    }
+
+    /**
+     * Reads every element of source, spilling sorted runs to temporary files, merges the runs until
+     * fewer than the maximum fan-in are left, and returns the lazy merge of the remaining runs.
+     *
+     * @param source Elements to sort
+     * @return       Iterator of the sorted elements
+     * @throws UncheckedIOException if a run cannot be written
+     */
+    Iterator<T> sort(Iterator<? extends T> source) {
+
+        List<T> buffer = new ArrayList<>(Math.min(heapBudget, 1024));
+
+        while(source.hasNext()) {
+
+            buffer.add(source.next());
+            if(buffer.size() == heapBudget) {
+                spill(buffer);
+                buffer.clear();
+            }
+
+        }
+
+        buffer.sort(comparator);
+
+        while(runs.size() >= MAX_FAN_IN)
+            mergePass();
+
+        return merge(runs, buffer.iterator());
+
+    }
+
+    /**
+     * Closes the runs being read and deletes the remaining run files.
+     *
+     * @throws UncheckedIOException if a run file cannot be deleted
+     */
+    @Override
+    public void close() {
+
+        UncheckedIOException failure = null;
+
+        for(Run run : runs) {
+            try {
+                run.release();
+            } catch(UncheckedIOException e) {
+                failure = e;
+            }
+        }
+
+        if(failure != null) throw failure;
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private void spill(List<T> buffer) {
+
+        buffer.sort(comparator);
+        runs.add(write(buffer.iterator()));
+
+    }
+
+    //replaces each group of consecutive runs by their merge, keeping the order of equal elements
+    private void mergePass() {
+
+        for(int i=0; i<runs.size(); i++) {
+
+            List<Run> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+            if(group.size() == 1) break;
+
+            Run merged = write(merge(group, null));
+            group.clear();
+            runs.add(i, merged);
+
+        }
+
+    }
+
+    //merges runs, followed by the sorted elements kept in heap if any
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Iterator<T> merge(List<Run> group, Iterator<? extends T> buffered) {
+
+        List<Iterator<? extends T>> sources = new ArrayList<>(group);
+        if(buffered != null) sources.add(buffered);
+
+        //read buffers shrink as more runs are read at once
+        int bufferSize = Math.min(IO_BUFFER, MERGE_BUFFER / Math.max(1, group.size()));
+        for(Run run : group)
+            run.bufferSize = bufferSize;
+
+        return new SortedMergeIterator<>(comparator, sources.toArray(new Iterator[0]), distinct);
+
+    }
+
+    //writes sorted elements to a new run file, deleted if the write fails
+    private Run write(Iterator<? extends T> elements) {
+
+        Run run;
+
+        try {
+            run = new Run(Files.createTempFile(RUN_PREFIX, ".run"));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.file), IO_BUFFER))) {
+
+            T previous = null;
+            while(elements.hasNext()) {
+
+                T element = elements.next();
+                if(distinct && run.remaining > 0 && comparator.compare(previous, element) == 0)
+                    continue;
+
+                codec.write(element, output);
+                previous = element;
+                run.remaining++;
+
+            }
+
+        } catch(IOException e) {
+            run.release();
+            throw new UncheckedIOException(e);
+        } catch(RuntimeException e) {
+            run.release();
+            throw e;
+        }
+
+        return run;
+
+    }
+
+    private final class Run implements Iterator<T> {
+
+        private final Path file;
+        private long remaining;
+        private int bufferSize = IO_BUFFER;
+        private DataInputStream input;
+
+        private Run(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if(remaining == 0) release();
+            return remaining > 0;
+
+        }
+
+        @Override
+        public T next() {
+
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            try {
+
+                if(input == null)
+                    input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+
+                remaining--;
+                return codec.read(input);
+
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+        private void release() {
+
+            remaining = 0;
+
+            try {
+
+                if(input != null) input.close();
+                Files.deleteIfExists(file);
+
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link WebUtilsMetrics} implementation keeping, per operation, the number of calls, 
+ * the total and maximum durations, and power of two histograms of input sizes and durations. 
+ * Counters are striped {@link java.util.concurrent.atomic.LongAdder} instances so concurrent 
+ * callers do not contend. Install it by setting the {@value WebUtilsMetrics#PROPERTY} system 
+ * property to this class name, then read it through {@link #snapshot()}.
+ * @author Ahmed Amin Nahhas
+ */
+public class InProcessMetrics implements WebUtilsMetrics {
+
+    /**
+     * Number of histogram buckets. Bucket 0 counts values equal to 0, and bucket i 
+     * counts values from 2^(i-1) inclusive to 2^i exclusive.
+     */
+    public static final int BUCKETS = Long.SIZE;
+
+    //stats by operation name
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String operation, long inputSize, long durationNanos) {
+
+        OperationStats stats = operations.get(operation);
+        if(stats == null)
+            stats = operations.computeIfAbsent(operation, name -> new OperationStats());
+
+        stats.record(inputSize, durationNanos);
+
+    }
+
+    /**
+     * Returns a snapshot of the recorded operations, sorted by operation name.
+     * Counters keep being updated while the snapshot is taken, so its values
+     * may not reflect a single instant.
+     * 
+     * @return Unmodifiable map of snapshots by operation name
+     */
+    public Map<String, OperationSnapshot> snapshot() {
+
+        Map<String, OperationSnapshot> snapshot = new TreeMap<>();
+        operations.forEach((name, stats) -> snapshot.put(name, stats.snapshot(name)));
+
+        return Collections.unmodifiableMap(snapshot);
+
+    }
+
+    /**
+     * Clears every recorded operation.
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * Returns the histogram bucket of a value.
+     * 
+     * @param value Value to bucket
+     * @return      Index of the bucket, from 0 to {@link #BUCKETS} - 1
+     */
+    public static int bucketOf(long value) {
+        return value <= 0 ? 0 : Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * Immutable snapshot of the stats of an operation.
+     */
+    public static final class OperationSnapshot {
+
+        private final String operation;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] sizeHistogram;
+        private final long[] latencyHistogram;
+
+        private OperationSnapshot(String operation, long count, long totalNanos, long maxNanos,
+            long[] sizeHistogram, long[] latencyHistogram) {
+
+            this.operation = operation;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.sizeHistogram = sizeHistogram;
+            this.latencyHistogram = latencyHistogram;
+
+        }
+
+        /**
+         * @return Name of the operation
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return Number of calls
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Total duration of the calls in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return Maximum duration of a call in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return Mean duration of a call in nanoseconds, or 0.0 if there are no calls
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @return Copy of the input sizes histogram, see {@link InProcessMetrics#bucketOf(long)}
+         */
+        public long[] getSizeHistogram() {
+            return sizeHistogram.clone();
+        }
+
+        /**
+         * @return Copy of the durations histogram in nanoseconds, see {@link InProcessMetrics#bucketOf(long)}
+         */
+        public long[] getLatencyHistogram() {
+            return latencyHistogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return operation + "[count=" + count + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos
+                + ", sizeHistogram=" + Arrays.toString(sizeHistogram) + "]";
+        }
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static final class OperationStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] sizeHistogram = newHistogram();
+        private final LongAdder[] latencyHistogram = newHistogram();
+
+        private void record(long inputSize, long durationNanos) {
+
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            sizeHistogram[bucketOf(inputSize)].increment();
+            latencyHistogram[bucketOf(durationNanos)].increment();
+
+        }
+
+        private OperationSnapshot snapshot(String operation) {
+
+            return new OperationSnapshot(operation, count.sum(), totalNanos.sum(), maxNanos.get(),
+                sumOf(sizeHistogram), sumOf(latencyHistogram));
+
+        }
+
+        private static LongAdder[] newHistogram() {
+
+            LongAdder[] histogram = new LongAdder[BUCKETS];
+            for(int i=0; i<BUCKETS; i++)
+                histogram[i] = new LongAdder();
+
+            return histogram;
+
+        }
+
+        private static long[] sumOf(LongAdder[] histogram) {
+
+            long[] sums = new long[histogram.length];
+            for(int i=0; i<histogram.length; i++)
+                sums[i] = histogram[i].sum();
+
+            return sums;
+
+        }
+
+    }
+
+}
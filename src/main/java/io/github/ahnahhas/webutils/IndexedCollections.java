@@ -0,0 +1,114 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Indexed implementations of the {@link CollectionUtils} operations comparing every element of a
+ * collection against every element of another. Elements are indexed in a {@link java.util.TreeSet}
+ * or {@link java.util.TreeMap} ordered by the operation comparator, so lookups run in logarithmic
+ * time. Results are the same as the nested loop implementations, in the same order, as long as the
+ * comparator imposes a total ordering.
+ * @author Ahmed Amin Nahhas
+ */
+final class IndexedCollections {
+
+    private IndexedCollections() {}
+
+    static <T, S extends Collection<T>> S distinct(
+        Comparator<? super T> comparator,
+        Collection<? extends T> collection,
+        Supplier<? extends S> supplier
+    ) {
+
+        S suppliedCollection = supplier.get();
+        Set<T> seen = new TreeSet<>(comparator);
+
+        for(T element : collection)
+            if(seen.add(element))
+                suppliedCollection.add(element);
+
+        return suppliedCollection;
+
+    }
+
+    static <T, S extends Collection<T>> S outerJoin(
+        Comparator<? super T> comparator,
+        S suppliedCollection,
+        Collection<T> concat
+    ) {
+
+        Map<T, Integer> counts = new TreeMap<>(comparator);
+        for(T element : concat)
+            counts.merge(element, 1, Integer::sum);
+
+        for(T element : concat)
+            if(counts.get(element) == 1)
+                suppliedCollection.add(element);
+
+        return suppliedCollection;
+
+    }
+
+    static <T> boolean containsAny(
+        Comparator<? super T> comparator,
+        Collection<? extends T> collection,
+        Collection<? extends T> container
+    ) {
+
+        Set<T> index = index(comparator, container);
+        for(T element : collection)
+            if(index.contains(element))
+                return true;
+
+        return false;
+
+    }
+
+    static <T> boolean containsAll(
+        Comparator<? super T> comparator,
+        Collection<? extends T> collection,
+        Collection<? extends T> container
+    ) {
+
+        return index(comparator, collection).containsAll(container);
+
+    }
+
+    static <T, S extends Collection<T>> S compliant(
+        Supplier<? extends S> supplier,
+        Comparator<? super T> comparator,
+        Collection<? extends T> reference,
+        Collection<? extends T> elements,
+        boolean compliant
+    ) {
+
+        S suppliedCollection = supplier.get();
+        Set<T> index = index(comparator, elements);
+
+        for(T element : reference)
+            if(index.contains(element) == compliant)
+                suppliedCollection.add(element);
+
+        return suppliedCollection;
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static <T> Set<T> index(Comparator<? super T> comparator, Collection<? extends T> collection) {
+
+        Set<T> index = new TreeSet<>(comparator);
+        if(collection != null)
+            index.addAll(collection);
+
+        return index;
+
+    }
+
+}
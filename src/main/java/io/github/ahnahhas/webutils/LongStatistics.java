@@ -0,0 +1,175 @@
+package io.github.ahnahhas.webutils;
+
+import java.math.BigInteger;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Mutable single-pass statistics of int or long values: count, sum, minimum, maximum, mean and
+ * variance. The sum is kept on 128 bits so it never overflows, and the mean and variance are
+ * updated with Welford's algorithm. Instances computed on parallel splits are merged with
+ * {@link #combine(LongStatistics)}. Not thread-safe, like {@link java.util.LongSummaryStatistics}.
+ * @author Ahmed Amin Nahhas
+ */
+public final class LongStatistics implements IntConsumer, LongConsumer {
+
+    private long count;
+    private long sumLow;
+    private long sumHigh;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * Records an int value.
+     *
+     * @param value Value to record
+     */
+    @Override
+    public void accept(int value) {
+        accept((long) value);
+    }
+
+    /**
+     * Records a long value.
+     *
+     * @param value Value to record
+     */
+    @Override
+    public void accept(long value) {
+
+        addToSum(value >> 63, value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        double delta = value - mean;
+        mean += delta / ++count;
+        squaredDeviations += delta * (value - mean);
+
+    }
+
+    /**
+     * Merges the statistics of other into this one.
+     *
+     * @param other Statistics to merge
+     * @return      This instance
+     */
+    public LongStatistics combine(LongStatistics other) {
+
+        if(other.count == 0) return this;
+
+        if(count == 0) {
+
+            count = other.count;
+            sumLow = other.sumLow;
+            sumHigh = other.sumHigh;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            squaredDeviations = other.squaredDeviations;
+            return this;
+
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+
+        addToSum(other.sumHigh, other.sumLow);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * ((double) count * other.count / total);
+        count = total;
+
+        return this;
+
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values, or 0 if there are none.
+     *
+     * @return Sum of the recorded values
+     * @throws ArithmeticException if the sum does not fit in a long, see {@link #getExactSum()}
+     */
+    public long getSum() throws ArithmeticException {
+
+        if(sumHigh != sumLow >> 63)
+            throw new ArithmeticException("long overflow");
+
+        return sumLow;
+
+    }
+
+    /**
+     * @return Sum of the recorded values, whatever its magnitude
+     */
+    public BigInteger getExactSum() {
+        return BigInteger.valueOf(sumHigh).shiftLeft(Long.SIZE)
+            .add(BigInteger.valueOf(sumLow >>> 1).shiftLeft(1))
+            .add(BigInteger.valueOf(sumLow & 1));
+    }
+
+    /**
+     * @return Minimum recorded value, or Long.MAX_VALUE if there are none
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * @return Maximum recorded value, or Long.MIN_VALUE if there are none
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return Arithmetic mean of the recorded values, or 0.0 if there are none
+     */
+    public double getMean() {
+
+        if(count == 0) return 0.0;
+
+        return sumHigh == sumLow >> 63 ? (double) sumLow / count : getExactSum().doubleValue() / count;
+
+    }
+
+    /**
+     * @return Population variance of the recorded values, or 0.0 if there are none
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : squaredDeviations / count;
+    }
+
+    /**
+     * @return Sample variance of the recorded values, or 0.0 if there are less than two
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : squaredDeviations / (count - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "LongStatistics[count=" + count + ", sum=" + getExactSum() + ", min=" + min + ", max=" + max
+            + ", mean=" + getMean() + ", variance=" + getVariance() + "]";
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private void addToSum(long high, long low) {
+
+        long previous = sumLow;
+        sumLow += low;
+        sumHigh += high + (Long.compareUnsigned(sumLow, previous) < 0 ? 1 : 0);
+
+    }
+
+}
@@ -0,0 +1,272 @@
+package io.github.ahnahhas.webutils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link java.util.Spliterator} of the lines of a byte range of a file, read through memory-mapped
+ * regions of a {@link java.nio.channels.FileChannel}. Lines end with a line feed, a carriage return,
+ * or a carriage return followed by a line feed, like {@link java.io.BufferedReader#readLine()}.
+ * Splitting halves the range at the first line end after its middle, so parallel Streams decode
+ * lines on every core.
+ * <p>
+ * Lines are decoded into Strings, or returned as {@link java.lang.CharSequence} views over the mapped
+ * bytes read as ISO-8859-1, without copying them. Only charsets encoding line feeds and carriage
+ * returns on single ASCII bytes, like UTF-8, ISO-8859-1 or US-ASCII, are supported.
+ * @author Ahmed Amin Nahhas
+ */
+final class MappedLineSpliterator<T extends CharSequence> implements Spliterator<T> {
+
+    //ranges smaller than this are not split
+    static final int MIN_SPLIT = 1 << 14;
+
+    //first mapped region, doubled for longer lines
+    private static final int REGION = 1 << 24;
+
+    //largest mapped region
+    private static final int MAX_REGION = Integer.MAX_VALUE - 8;
+
+    //bytes read at once to find a line end when splitting
+    private static final int SCAN = 1 << 13;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final boolean view;
+    private long position;
+    private final long end;
+
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private int region = REGION;
+    private byte[] scratch;
+
+    /**
+     * Returns a Spliterator of the lines from start inclusive to end exclusive.
+     *
+     * @param channel Channel of the file
+     * @param start   Position of the first byte, at the start of a line
+     * @param end     Position after the last byte, at the end of a line or of the file
+     * @param charset Charset decoding the lines
+     * @param view    Boolean to return views over ISO-8859-1 bytes instead of Strings
+     */
+    MappedLineSpliterator(FileChannel channel, long start, long end, Charset charset, boolean view) {
+
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+        this.charset = charset;
+        this.view = view;
+
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+        if(position >= end) return false;
+
+        try {
+
+            while(true) {
+
+                if(buffer == null || position < bufferStart || position >= bufferStart + buffer.limit())
+                    map(position);
+
+                int from = (int) (position - bufferStart);
+                int limit = buffer.limit();
+                int i = from;
+                while(i < limit && !isLineEnd(buffer.get(i)))
+                    i++;
+
+                boolean mapped = bufferStart + limit >= end;
+
+                //line end not mapped yet, or carriage return whose next byte is not mapped
+                if((i == limit && !mapped) || (i == limit - 1 && buffer.get(i) == '\r' && !mapped)) {
+                    remap();
+                    continue;
+                }
+
+                long next = bufferStart + i;
+                if(i < limit)
+                    next += buffer.get(i) == '\r' && i + 1 < limit && buffer.get(i + 1) == '\n' ? 2 : 1;
+
+                action.accept(line(from, i - from));
+                position = next;
+                return true;
+
+            }
+
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+
+        long remaining = end - position;
+        if(remaining < MIN_SPLIT) return null;
+
+        try {
+
+            long boundary = nextLineStart(position + remaining / 2);
+            if(boundary <= position || boundary >= end) return null;
+
+            MappedLineSpliterator<T> prefix = new MappedLineSpliterator<>(channel, position, boundary, charset, view);
+            position = boundary;
+            return prefix;
+
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private void map(long start) throws IOException {
+
+        bufferStart = start;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(region, end - start));
+
+    }
+
+    private void remap() throws IOException {
+
+        //the line is longer than the region starting at it, a larger region is needed
+        if(bufferStart == position) {
+
+            if(region == MAX_REGION)
+                throw new IOException("Line longer than " + MAX_REGION + " bytes at position " + position);
+
+            region = (int) Math.min(MAX_REGION, (long) region * 2);
+
+        }
+
+        map(position);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private T line(int offset, int length) {
+
+        if(view)
+            return (T) new Latin1Sequence(buffer, offset, length);
+
+        if(scratch == null || scratch.length < length)
+            scratch = new byte[Math.max(length, 128)];
+
+        for(int i=0; i<length; i++)
+            scratch[i] = buffer.get(offset + i);
+
+        return (T) new String(scratch, 0, length, charset);
+
+    }
+
+    private long nextLineStart(long from) throws IOException {
+
+        ByteBuffer scan = ByteBuffer.allocate(SCAN);
+        long offset = from;
+        boolean carriageReturn = false;
+
+        while(offset < end) {
+
+            scan.clear();
+            scan.limit((int) Math.min(SCAN, end - offset));
+            int read = channel.read(scan, offset);
+            if(read <= 0) return -1;
+
+            for(int i=0; i<read; i++) {
+
+                byte b = scan.get(i);
+                if(carriageReturn) return b == '\n' ? offset + i + 1 : offset + i;
+                if(b == '\n') return offset + i + 1;
+                carriageReturn = b == '\r';
+
+            }
+
+            offset += read;
+
+        }
+
+        return carriageReturn ? end : -1;
+
+    }
+
+    /**
+     * {@link java.lang.CharSequence} view over ISO-8859-1 bytes of a mapped region.
+     */
+    private static final class Latin1Sequence implements CharSequence {
+
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        private Latin1Sequence(ByteBuffer bytes, int offset, int length) {
+
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+
+            if(index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+
+            return (char) (bytes.get(offset + index) & 0xFF);
+
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+
+            if(start < 0 || end > length || start > end)
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+
+            return new Latin1Sequence(bytes, offset + start, end - start);
+
+        }
+
+        @Override
+        public String toString() {
+
+            byte[] copy = new byte[length];
+            for(int i=0; i<length; i++)
+                copy[i] = bytes.get(offset + i);
+
+            return new String(copy, StandardCharsets.ISO_8859_1);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.github.ahnahhas.webutils;
+
+import java.lang.System.Logger.Level;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Records calls of the instrumented operations to the installed {@link WebUtilsMetrics}.
+ * Every method returns immediately when metrics are disabled, a constant the JIT compiler
+ * folds so disabled instrumentation costs nothing. Sizes are computed after the check,
+ * so callers pass their inputs rather than their sizes.
+ * @author Ahmed Amin Nahhas
+ */
+final class MetricsRecorder {
+
+    //installed implementation
+    static final WebUtilsMetrics METRICS = load();
+
+    //true if an implementation other than NOOP is installed
+    static final boolean ENABLED = METRICS != WebUtilsMetrics.NOOP;
+
+    private MetricsRecorder() {}
+
+    /**
+     * Returns the start time of a call, or 0 if metrics are disabled.
+     * 
+     * @return Start time in nanoseconds
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a call on a {@link java.util.Collection}.
+     * 
+     * @param operation  Name of the operation
+     * @param start      Start time returned by {@link #start()}
+     * @param collection Input collection
+     */
+    static void record(String operation, long start, Collection<?> collection) {
+        if(ENABLED) record(operation, start, sizeOf(collection));
+    }
+
+    /**
+     * Records a call on two {@link java.util.Collection} instances.
+     * 
+     * @param operation Name of the operation
+     * @param start     Start time returned by {@link #start()}
+     * @param left      First input collection
+     * @param right     Second input collection
+     */
+    static void record(String operation, long start, Collection<?> left, Collection<?> right) {
+        if(ENABLED) record(operation, start, (long) sizeOf(left) + sizeOf(right));
+    }
+
+    /**
+     * Records a call on an array of {@link java.util.Collection}.
+     * 
+     * @param operation   Name of the operation
+     * @param start       Start time returned by {@link #start()}
+     * @param collections Input collections
+     */
+    static void record(String operation, long start, Collection<?>[] collections) {
+
+        if(!ENABLED) return;
+
+        long size = 0;
+        if(collections != null)
+            for(Collection<?> collection : collections)
+                size += sizeOf(collection);
+
+        record(operation, start, size);
+
+    }
+
+    /**
+     * Records a call on a {@link java.lang.CharSequence}.
+     * 
+     * @param operation Name of the operation
+     * @param start     Start time returned by {@link #start()}
+     * @param str       Input CharSequence
+     */
+    static void record(String operation, long start, CharSequence str) {
+        if(ENABLED) record(operation, start, StringUtils.length(str));
+    }
+
+    /**
+     * Records a call on an array of {@link java.lang.CharSequence}.
+     * 
+     * @param operation Name of the operation
+     * @param start     Start time returned by {@link #start()}
+     * @param elements  Input CharSequence references
+     */
+    static void record(String operation, long start, CharSequence[] elements) {
+
+        if(!ENABLED) return;
+
+        long size = 0;
+        if(elements != null)
+            for(CharSequence element : elements)
+                size += StringUtils.length(element);
+
+        record(operation, start, size);
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static void record(String operation, long start, long size) {
+        METRICS.record(operation, size, System.nanoTime() - start);
+    }
+
+    private static int sizeOf(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+
+    private static WebUtilsMetrics load() {
+
+        try {
+
+            String className = System.getProperty(WebUtilsMetrics.PROPERTY);
+            if(className != null && !className.isBlank())
+                return (WebUtilsMetrics) Class.forName(className.trim())
+                    .getDeclaredConstructor()
+                    .newInstance();
+
+            Iterator<WebUtilsMetrics> providers = ServiceLoader.load(WebUtilsMetrics.class).iterator();
+            return providers.hasNext() ? providers.next() : WebUtilsMetrics.NOOP;
+
+        } catch(ReflectiveOperationException | RuntimeException | LinkageError e) {
+
+            System.getLogger(MetricsRecorder.class.getName())
+                .log(Level.WARNING, "Could not install metrics implementation, metrics are disabled", e);
+
+            return WebUtilsMetrics.NOOP;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,383 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Precompiled search of many patterns at once (Aho-Corasick automaton). Patterns are merged into a
+ * trie, each state linking to the state of its longest proper suffix that is also in the trie, so a
+ * {@link java.lang.CharSequence} is scanned once whatever the number of patterns, in time linear in
+ * its length plus the number of reported matches.
+ * <p>
+ * Transitions of the initial state are indexed by Latin-1 char, other transitions are stored in sorted
+ * arrays. Case-insensitive matchers compare chars converted with {@link java.lang.Character#toUpperCase(char)}.
+ * Instances are immutable and thread-safe.
+ * @author Ahmed Amin Nahhas
+ */
+public final class MultiStringMatcher {
+
+    //number of chars indexed by the initial state
+    private static final int LATIN1 = 256;
+
+    //transitions of a state are searched linearly up to this number
+    private static final int LINEAR_SEARCH = 8;
+
+    private final List<String> patterns;
+    private final boolean ignoreCase;
+    private final int[] rootTransitions;
+    private final int[] offsets;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] failures;
+    private final int[] outputs;
+    private final int[] dictionaryLinks;
+
+    /**
+     * Returns a matcher of patterns.
+     *
+     * @param patterns   CharSequence references to search for
+     * @param ignoreCase Boolean to search case-insensitively
+     * @throws IllegalArgumentException if a pattern is empty
+     */
+    MultiStringMatcher(Collection<? extends CharSequence> patterns, boolean ignoreCase) throws IllegalArgumentException {
+
+        this.ignoreCase = ignoreCase;
+
+        List<String> copy = new ArrayList<>(patterns.size());
+        for(CharSequence pattern : patterns) {
+
+            if(Objects.requireNonNull(pattern).length() == 0)
+                throw new IllegalArgumentException("patterns must not be empty");
+
+            copy.add(pattern.toString());
+
+        }
+
+        this.patterns = Collections.unmodifiableList(copy);
+
+        //trie edges keyed by state << 16 | char
+        Map<Long, Integer> edges = new HashMap<>();
+        List<Integer> terminals = new ArrayList<>();
+        terminals.add(-1);
+
+        for(int index=0; index<copy.size(); index++) {
+
+            String pattern = copy.get(index);
+            int state = 0;
+
+            for(int i=0; i<pattern.length(); i++) {
+
+                long key = (long) state << 16 | StringSearcher.fold(pattern.charAt(i), ignoreCase);
+                Integer next = edges.get(key);
+
+                if(next == null) {
+                    next = terminals.size();
+                    edges.put(key, next);
+                    terminals.add(-1);
+                }
+
+                state = next;
+
+            }
+
+            //duplicate patterns report the first one
+            if(terminals.get(state) < 0) terminals.set(state, index);
+
+        }
+
+        int states = terminals.size();
+        long[] keys = new long[edges.size()];
+        int k = 0;
+        for(Long key : edges.keySet())
+            keys[k++] = key;
+
+        Arrays.sort(keys);
+
+        this.offsets = new int[states + 1];
+        this.labels = new char[keys.length];
+        this.targets = new int[keys.length];
+        this.rootTransitions = new int[LATIN1];
+
+        for(int i=0; i<keys.length; i++) {
+
+            int state = (int) (keys[i] >>> 16);
+            labels[i] = (char) keys[i];
+            targets[i] = edges.get(keys[i]);
+            offsets[state + 1]++;
+
+            if(state == 0 && labels[i] < LATIN1)
+                rootTransitions[labels[i]] = targets[i];
+
+        }
+
+        for(int i=0; i<states; i++)
+            offsets[i + 1] += offsets[i];
+
+        this.outputs = new int[states];
+        for(int i=0; i<states; i++)
+            outputs[i] = terminals.get(i);
+
+        this.failures = new int[states];
+        this.dictionaryLinks = new int[states];
+        link(states);
+
+    }
+
+    /**
+     * Returns the compiled patterns, in the order they were given.
+     *
+     * @return Unmodifiable List of patterns
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns true if the search is case-insensitive.
+     *
+     * @return boolean true if case-insensitive
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Verifies if text contains at least one of the patterns, stopping at the first match.
+     * If text is null, then false is returned.
+     *
+     * @param text CharSequence to search in
+     * @return     boolean containing the result of verification
+     */
+    public boolean matches(CharSequence text) {
+
+        if(text == null) return false;
+
+        int state = 0;
+        for(int i=0, length=text.length(); i<length; i++) {
+
+            state = next(state, StringSearcher.fold(text.charAt(i), ignoreCase));
+            if(outputs[state] >= 0 || dictionaryLinks[state] > 0) return true;
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Returns the first match found in text, which is the match ending first, the longest one if
+     * several matches end at the same index. If text is null or contains no pattern, an empty
+     * {@link java.util.Optional} is returned.
+     *
+     * @param text CharSequence to search in
+     * @return     Optional of the first match
+     */
+    public Optional<Match> findFirst(CharSequence text) {
+
+        if(text == null) return Optional.empty();
+
+        int state = 0;
+        for(int i=0, length=text.length(); i<length; i++) {
+
+            state = next(state, StringSearcher.fold(text.charAt(i), ignoreCase));
+
+            int terminal = outputs[state] >= 0 ? state : dictionaryLinks[state];
+            if(terminal > 0) return Optional.of(match(outputs[terminal], i + 1));
+
+        }
+
+        return Optional.empty();
+
+    }
+
+    /**
+     * Returns every match found in text, overlapping matches included, ordered by end index, then
+     * from the longest to the shortest match. If text is null or contains no pattern, an empty
+     * {@link java.util.List} is returned.
+     *
+     * @param text CharSequence to search in
+     * @return     List of every match
+     */
+    public List<Match> findAll(CharSequence text) {
+
+        List<Match> matches = new ArrayList<>();
+        if(text == null) return matches;
+
+        int state = 0;
+        for(int i=0, length=text.length(); i<length; i++) {
+
+            state = next(state, StringSearcher.fold(text.charAt(i), ignoreCase));
+
+            int terminal = outputs[state] >= 0 ? state : dictionaryLinks[state];
+            while(terminal > 0) {
+                matches.add(match(outputs[terminal], i + 1));
+                terminal = dictionaryLinks[terminal];
+            }
+
+        }
+
+        return matches;
+
+    }
+
+    @Override
+    public String toString() {
+        return "MultiStringMatcher[patterns=" + patterns.size() + ", ignoreCase=" + ignoreCase + "]";
+    }
+
+    /**
+     * Occurrence of a pattern in a searched {@link java.lang.CharSequence}.
+     */
+    public static final class Match {
+
+        private final int patternIndex;
+        private final String pattern;
+        private final int start;
+
+        private Match(int patternIndex, String pattern, int start) {
+
+            this.patternIndex = patternIndex;
+            this.pattern = pattern;
+            this.start = start;
+
+        }
+
+        /**
+         * Returns the index of the matched pattern, in the order patterns were given.
+         *
+         * @return Index of the matched pattern
+         */
+        public int getPatternIndex() {
+            return patternIndex;
+        }
+
+        /**
+         * Returns the matched pattern.
+         *
+         * @return Matched pattern
+         */
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Returns the index of the first char of the match.
+         *
+         * @return Start index, inclusive
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the index following the last char of the match.
+         *
+         * @return End index, exclusive
+         */
+        public int getEnd() {
+            return start + pattern.length();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if(this == obj) return true;
+            if(!(obj instanceof Match)) return false;
+
+            Match other = (Match) obj;
+            return patternIndex == other.patternIndex && start == other.start && pattern.equals(other.pattern);
+
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(patternIndex, pattern, start);
+        }
+
+        @Override
+        public String toString() {
+            return "Match[pattern=" + pattern + ", start=" + start + ", end=" + getEnd() + "]";
+        }
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private Match match(int patternIndex, int end) {
+
+        String pattern = patterns.get(patternIndex);
+        return new Match(patternIndex, pattern, end - pattern.length());
+
+    }
+
+    private int next(int state, char c) {
+
+        while(state != 0) {
+
+            int target = transition(state, c);
+            if(target >= 0) return target;
+
+            state = failures[state];
+
+        }
+
+        return c < LATIN1 ? rootTransitions[c] : Math.max(0, transition(0, c));
+
+    }
+
+    private int transition(int state, char c) {
+
+        int from = offsets[state];
+        int to = offsets[state + 1];
+
+        if(to - from <= LINEAR_SEARCH) {
+
+            for(int i=from; i<to; i++) {
+                if(labels[i] == c) return targets[i];
+            }
+
+            return -1;
+
+        }
+
+        int index = Arrays.binarySearch(labels, from, to, c);
+        return index >= 0 ? targets[index] : -1;
+
+    }
+
+    //computes failure and dictionary links in breadth-first order, parents before children
+    private void link(int states) {
+
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+
+        for(int i=offsets[0]; i<offsets[1]; i++) {
+            queue[tail++] = targets[i];
+        }
+
+        while(head < tail) {
+
+            int state = queue[head++];
+            int failure = failures[state];
+            dictionaryLinks[state] = outputs[failure] >= 0 ? failure : dictionaryLinks[failure];
+
+            for(int i=offsets[state]; i<offsets[state + 1]; i++) {
+
+                int child = targets[i];
+                failures[child] = next(failure, labels[i]);
+                queue[tail++] = child;
+
+            }
+
+        }
+
+    }
+
+}
@@ -23,7 +23,7 @@ public class OptionalUtils {
      * @return            Object or default value
      */
     public static <T> T orDefault(T nullable, Supplier<? extends T> defSupplier) {
-        return Optional.ofNullable(nullable).orElseGet(defSupplier);
+        return nullable != null ? nullable : defSupplier.get();
     }
 
     /**
@@ -35,7 +35,12 @@ public class OptionalUtils {
      * @throws NoSuchElementException if object is null
      */
     public static <T> T orThrow(T nullable) throws NoSuchElementException {
-        return Optional.ofNullable(nullable).orElseThrow();
+
+        if(nullable == null)
+            throw new NoSuchElementException("No value present");
+
+        return nullable;
+
     }
 
     /**
@@ -48,7 +53,12 @@ public class OptionalUtils {
      * @throws RuntimeException if object is null
      */
     public static <T> T orThrow(T nullable, Supplier<? extends RuntimeException> exSupplier) throws RuntimeException {
-        return Optional.ofNullable(nullable).orElseThrow(exSupplier);
+
+        if(nullable == null)
+            throw exSupplier.get();
+
+        return nullable;
+
     }
 
     /**
@@ -59,9 +69,7 @@ public class OptionalUtils {
      * @return    CharSequence if not blank, or else null
      */
     public static <T extends CharSequence> T ofBlank(T str) {
-        return Optional.ofNullable(str)
-            .filter(StringUtils::isNotBlank)
-            .orElse(null);
+        return StringUtils.isNotBlank(str) ? str : null;
     }
 
     /**
@@ -76,9 +84,7 @@ public class OptionalUtils {
      */
     public static <T, U> U ofMappable(T element, Function<? super T, ? extends U> mapper) {
 
-        return Optional.ofNullable(element)
-            .map(mapper)
-            .orElse(null);
+        return element != null ? mapper.apply(element) : null;
 
     }
 
@@ -91,7 +97,7 @@ public class OptionalUtils {
      * @return          Object if condition is true
      */
     public static <T> T ofTruthy(T element, boolean condition) {
-        return ofTruthy(element, t -> condition);
+        return condition ? element : null;
     }
 
     /**
@@ -105,10 +111,8 @@ public class OptionalUtils {
      */
     public static <T> T ofTruthy(T element, Predicate<? super T> predicate) {
 
-        return Optional.ofNullable(element)
-            .filter(predicate)
-            .orElse(null);
-            
+        return element != null && predicate.test(element) ? element : null;
+
     }
 
     /**
@@ -120,7 +124,12 @@ public class OptionalUtils {
      * @return                Supplied object if condition is true
      */
     public static <T> T ofSupplied(Supplier<? extends T> elementSupplier, boolean condition) {
-        return ofSupplied(elementSupplier, t -> condition);
+
+        if(elementSupplier == null) return null;
+
+        T element = elementSupplier.get();
+        return condition ? element : null;
+
     }
 
     /**
@@ -134,10 +143,10 @@ public class OptionalUtils {
      */
     public static <T> T ofSupplied(Supplier<? extends T> elementSupplier, Predicate<? super T> predicate) {
 
-        return Optional.ofNullable(elementSupplier)
-            .map(Supplier::get)
-            .filter(predicate)
-            .orElse(null);
+        if(elementSupplier == null) return null;
+
+        T element = elementSupplier.get();
+        return element != null && predicate.test(element) ? element : null;
 
     }
 
@@ -156,9 +165,8 @@ public class OptionalUtils {
     public static <T, U, R> R merge(Optional<? extends T> left, Optional<? extends U> right, 
         BiFunction<? super T, ? super U, ? extends R> combiner) {
 
-        return left.flatMap((final var first) -> 
-            right.map(second -> combiner.apply(first, second)))
-                .orElse(null);
+        if(left.isEmpty() || right.isEmpty()) return null;
+        return combiner.apply(left.get(), right.get());
 
     }
 
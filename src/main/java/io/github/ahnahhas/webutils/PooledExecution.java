@@ -0,0 +1,71 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs parallel {@link java.util.stream.Stream} terminal operations on a given
+ * {@link java.util.concurrent.ForkJoinPool} instead of the common pool. A parallel Stream
+ * evaluated by a task of a pool forks its subtasks into that same pool.
+ * @author Ahmed Amin Nahhas
+ */
+final class PooledExecution {
+
+    private PooledExecution() {}
+
+    /**
+     * Runs the terminal operation in pool and waits for its result.
+     *
+     * @param <R>      Type of the result
+     * @param pool     Pool running the operation
+     * @param terminal Terminal operation of a parallel Stream
+     * @return         Result of the operation
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    static <R> R invoke(ForkJoinPool pool, Supplier<? extends R> terminal) {
+
+        ForkJoinTask<? extends R> task = pool.submit(() -> terminal.get());
+
+        try {
+            return task.get();
+        } catch(ExecutionException e) {
+            throw ConcurrentMapper.rethrow(e.getCause());
+        } catch(InterruptedException e) {
+
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the parallel stream");
+
+        }
+
+    }
+
+    /**
+     * Runs the terminal operation in a new pool of parallelism threads, shut down once done.
+     *
+     * @param <R>         Type of the result
+     * @param parallelism Number of threads of the pool
+     * @param terminal    Terminal operation of a parallel Stream
+     * @return            Result of the operation
+     * @throws IllegalArgumentException if parallelism is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    static <R> R invoke(int parallelism, Supplier<? extends R> terminal) {
+
+        if(parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            return invoke(pool, terminal);
+        } finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+}
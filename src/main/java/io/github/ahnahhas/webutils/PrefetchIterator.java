@@ -0,0 +1,174 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * {@link java.util.Iterator} over a {@link java.util.stream.Stream} traversed ahead of the consumer
+ * by a producer task. The producer puts elements into a bounded queue and blocks when it is full, so
+ * at most bufferSize elements wait for the consumer. A failure of the producer is rethrown to the
+ * consumer once the previous elements are consumed. Cancelling interrupts the producer, and the
+ * source Stream is closed by the producer when it stops.
+ * @author Ahmed Amin Nahhas
+ */
+final class PrefetchIterator<T> implements Iterator<T>, Runnable {
+
+    //stands for null elements, blocking queues do not accept null
+    private static final Object NULL = new Object();
+
+    //signals the end of the source in the queue
+    private static final Object COMPLETE = new Object();
+
+    private final Stream<? extends T> source;
+    private final BlockingQueue<Object> queue;
+
+    private volatile boolean started;
+    private volatile boolean cancelled;
+    private Thread producer;
+    private Object next;
+
+    /**
+     * Returns an Iterator prefetching at most bufferSize elements of source.
+     *
+     * @param source     Stream to prefetch
+     * @param bufferSize Maximum number of elements waiting for the consumer
+     */
+    PrefetchIterator(Stream<? extends T> source, int bufferSize) {
+
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+
+    }
+
+    /**
+     * Starts the producer on the executor.
+     *
+     * @param executor Executor running the producer
+     * @return         This instance
+     */
+    PrefetchIterator<T> start(Executor executor) {
+
+        started = true;
+        executor.execute(this);
+        return this;
+
+    }
+
+    @Override
+    public void run() {
+
+        synchronized(this) {
+            producer = Thread.currentThread();
+        }
+
+        try {
+
+            Iterator<? extends T> iterator = source.iterator();
+            while(!cancelled && iterator.hasNext()) {
+                T element = iterator.next();
+                queue.put(element == null ? NULL : element);
+            }
+
+            if(!cancelled) queue.put(COMPLETE);
+
+        } catch(InterruptedException e) {
+
+            if(!cancelled) Thread.currentThread().interrupt();
+
+        } catch(RuntimeException | Error e) {
+
+            try {
+                if(!cancelled) queue.put(new Failure(e));
+            } catch(InterruptedException interrupted) {
+                if(!cancelled) Thread.currentThread().interrupt();
+            }
+
+        } finally {
+
+            //an interrupt sent by cancel must not leak to the next task of the thread
+            synchronized(this) {
+                producer = null;
+                if(cancelled) Thread.interrupted();
+            }
+
+            source.close();
+
+        }
+
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if(next == null) {
+
+            try {
+                next = queue.take();
+            } catch(InterruptedException e) {
+
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for prefetched elements");
+
+            }
+
+            if(next instanceof Failure) {
+                Failure failure = (Failure) next;
+                next = COMPLETE;
+                throw ConcurrentMapper.rethrow(failure.cause);
+            }
+
+        }
+
+        return next != COMPLETE;
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+
+        if(!hasNext())
+            throw new NoSuchElementException();
+
+        Object element = next;
+        next = null;
+        return element == NULL ? null : (T) element;
+
+    }
+
+    /**
+     * Stops the producer and discards the prefetched elements. If the producer was never
+     * started, the source Stream is closed.
+     */
+    void cancel() {
+
+        cancelled = true;
+
+        synchronized(this) {
+            if(producer != null) producer.interrupt();
+        }
+
+        queue.clear();
+        if(!started) source.close();
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static final class Failure {
+
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Blocking {@link java.util.Iterator} subscribed to a {@link java.util.concurrent.Flow.Publisher}.
+ * At most prefetch elements are requested ahead of the consumer: prefetch are requested on
+ * subscription, then more are requested each time three quarters of them were consumed. Elements
+ * wait in a queue bounded by the outstanding demand. Errors signaled by the publisher are rethrown
+ * by the iterator once the previous elements are consumed.
+ * @author Ahmed Amin Nahhas
+ */
+final class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T> {
+
+    //signals the completion of the publisher in the queue
+    private static final Object COMPLETE = new Object();
+
+    private final int prefetch;
+    private final int replenish;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private int consumed;
+    private Object next;
+
+    /**
+     * Returns an Iterator requesting at most prefetch elements ahead of the consumer.
+     *
+     * @param prefetch Maximum number of requested but not yet consumed elements
+     */
+    PublisherIterator(int prefetch) {
+
+        this.prefetch = prefetch;
+        this.replenish = Math.max(1, prefetch - (prefetch >> 2));
+
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        if(this.subscription != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        subscription.request(prefetch);
+
+    }
+
+    @Override
+    public void onNext(T item) {
+        queue.offer(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        queue.offer(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        queue.offer(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if(next == null) {
+
+            try {
+                next = queue.take();
+            } catch(InterruptedException e) {
+
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for the publisher");
+
+            }
+
+            if(next instanceof Failure) {
+                Failure failure = (Failure) next;
+                next = COMPLETE;
+                throw ConcurrentMapper.rethrow(failure.cause);
+            }
+
+        }
+
+        return next != COMPLETE;
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+
+        if(!hasNext())
+            throw new NoSuchElementException();
+
+        T element = (T) next;
+        next = null;
+
+        if(++consumed == replenish) {
+            consumed = 0;
+            subscription.request(replenish);
+        }
+
+        return element;
+
+    }
+
+    /**
+     * Cancels the subscription, no more element is requested.
+     */
+    void cancel() {
+
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if(current != null) current.cancel();
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static final class Failure {
+
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+package io.github.ahnahhas.webutils;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards the {@link CollectionUtils} operations comparing every element of a collection against
+ * every element of another. Before running, an operation passes the sizes of its inputs, and when
+ * their product exceeds the work budget, the guard either reroutes the operation to an indexed
+ * implementation, or logs a rate-limited warning naming the call site, depending on its mode.
+ * <p>
+ * The budget is read from the {@value #BUDGET_PROPERTY} system property, {@value #DEFAULT_BUDGET}
+ * comparisons by default. The mode is read from the {@value #MODE_PROPERTY} system property, one of
+ * {@code warn} (default), {@code reroute} or {@code off}. Rerouting is opt-in because the indexed
+ * implementations require a comparator imposing a total ordering, so an unrecognised value falls back
+ * to {@code warn}.
+ * @author Ahmed Amin Nahhas
+ */
+final class QuadraticGuard {
+
+    /** What to do when the work budget is exceeded */
+    enum Mode { REROUTE, WARN, OFF }
+
+    //system property of the work budget
+    static final String BUDGET_PROPERTY = "webutils.quadratic.budget";
+
+    //system property of the mode
+    static final String MODE_PROPERTY = "webutils.quadratic.mode";
+
+    //default work budget, in comparisons
+    static final long DEFAULT_BUDGET = 1_000_000L;
+
+    //declared before the configuration, which logs invalid values
+    private static final Logger LOGGER = System.getLogger(QuadraticGuard.class.getName());
+
+    //configured work budget
+    static final long BUDGET = budget();
+
+    //configured mode
+    static final Mode MODE = mode(System.getProperty(MODE_PROPERTY));
+
+    //minimum delay between two warnings of the same operation
+    private static final long WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    //prefix of the library classes, skipped when looking for the call site
+    private static final String PACKAGE_PREFIX = QuadraticGuard.class.getPackageName() + ".";
+
+    //time of the last warning by operation
+    private static final Map<String, AtomicLong> LAST_WARNINGS = new ConcurrentHashMap<>();
+
+    private QuadraticGuard() {}
+
+    /**
+     * Checks the estimated work of an operation against the budget. Returns true if the operation
+     * must run its indexed implementation. If the budget is exceeded in warn mode, a warning is logged 
+     * at most once per minute per operation and false is returned.
+     * 
+     * @param operation Name of the operation
+     * @param leftSize  Size of the first input
+     * @param rightSize Size of the second input
+     * @return          boolean equal to true if the operation must be rerouted
+     */
+    static boolean reroute(String operation, long leftSize, long rightSize) {
+        return reroute(MODE, operation, leftSize, rightSize);
+    }
+
+    /**
+     * Checks the estimated work of an operation against the budget in the given mode. 
+     * See {@link #reroute(String, long, long)}.
+     * 
+     * @param mode      Mode of the guard
+     * @param operation Name of the operation
+     * @param leftSize  Size of the first input
+     * @param rightSize Size of the second input
+     * @return          boolean equal to true if the operation must be rerouted
+     */
+    static boolean reroute(Mode mode, String operation, long leftSize, long rightSize) {
+
+        if(mode == Mode.OFF || !exceeds(leftSize, rightSize)) return false;
+        if(mode == Mode.REROUTE) return true;
+
+        warn(operation, leftSize, rightSize);
+        return false;
+
+    }
+
+    /**
+     * Parses the mode of the guard, {@link Mode#WARN} if mode is null, blank or unrecognised.
+     * 
+     * @param mode Value of the mode system property
+     * @return     Parsed mode
+     */
+    static Mode mode(String mode) {
+
+        if(mode == null || mode.isBlank()) return Mode.WARN;
+
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch(IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid " + MODE_PROPERTY + " value: " + mode + ", falling back to warn", e);
+            return Mode.WARN;
+        }
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static boolean exceeds(long leftSize, long rightSize) {
+        return leftSize > 0 && rightSize > BUDGET / leftSize;
+    }
+
+    private static void warn(String operation, long leftSize, long rightSize) {
+
+        long now = System.nanoTime();
+        AtomicLong lastWarning = LAST_WARNINGS.computeIfAbsent(operation, key -> new AtomicLong(now - WARNING_INTERVAL));
+        long last = lastWarning.get();
+
+        if(now - last < WARNING_INTERVAL || !lastWarning.compareAndSet(last, now))
+            return;
+
+        //the call site must be resolved before entering the logger
+        String callSite = callSite();
+        LOGGER.log(Level.WARNING, () -> String.format(Locale.ROOT, 
+            "%s called with inputs of %d and %d elements, exceeding the budget of %d comparisons, from %s",
+            operation, leftSize, rightSize, BUDGET, callSite));
+
+    }
+
+    private static String callSite() {
+
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> !f.getClassName().startsWith(PACKAGE_PREFIX))
+            .findFirst());
+
+        return frame.map(Object::toString).orElse("unknown call site");
+
+    }
+
+    private static long budget() {
+
+        String budget = System.getProperty(BUDGET_PROPERTY);
+        if(budget == null || budget.isBlank()) return DEFAULT_BUDGET;
+
+        try {
+            return Math.max(0, Long.parseLong(budget.trim()));
+        } catch(NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid " + BUDGET_PROPERTY + " value: " + budget, e);
+            return DEFAULT_BUDGET;
+        }
+
+    }
+
+}
@@ -0,0 +1,286 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Mergeable streaming sketch estimating the quantiles of double values, like p50, p95 or p99 of
+ * latencies, without sorting or buffering every value. Values are kept in levels, a value of level h
+ * standing for 2^h recorded values. When the sketch is full, the lowest full level is sorted and every
+ * other value, starting at a random offset, is promoted to the next level (KLL sketch). Level
+ * capacities shrink geometrically from the top level, so memory stays about 3 * k values.
+ * <p>
+ * The rank error of a quantile is about 1.7 / k of the number of values, k = 200 by default
+ * (about 0.85%). Minimum and maximum are exact. Instances computed on parallel splits are merged
+ * with {@link #combine(QuantileSketch)}. Not thread-safe.
+ * @author Ahmed Amin Nahhas
+ */
+public final class QuantileSketch implements DoubleConsumer {
+
+    /**
+     * Default accuracy parameter.
+     */
+    public static final int DEFAULT_K = 200;
+
+    /**
+     * Minimum accuracy parameter, also the minimum capacity of a level.
+     */
+    public static final int MIN_K = 8;
+
+    //capacity ratio between a level and the level above
+    private static final double DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int retained;
+    private int capacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Returns an empty sketch with the default accuracy {@link #DEFAULT_K}.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Returns an empty sketch with the accuracy k. Memory and accuracy grow linearly with k.
+     *
+     * @param k Accuracy parameter, at least {@link #MIN_K}
+     * @throws IllegalArgumentException if k is lower than {@link #MIN_K}
+     */
+    public QuantileSketch(int k) throws IllegalArgumentException {
+
+        if(k < MIN_K)
+            throw new IllegalArgumentException("k must be at least " + MIN_K);
+
+        this.k = k;
+        this.levels[0] = new double[k];
+        this.capacity = k;
+
+    }
+
+    /**
+     * Records a value. NaN values are ignored.
+     *
+     * @param value Value to record
+     */
+    @Override
+    public void accept(double value) {
+
+        if(Double.isNaN(value)) return;
+
+        if(count++ == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        append(0, value);
+        retained++;
+        compress();
+
+    }
+
+    /**
+     * Merges the values of other into this sketch.
+     *
+     * @param other Sketch to merge
+     * @return      This instance
+     */
+    public QuantileSketch combine(QuantileSketch other) {
+
+        if(other.count == 0) return this;
+
+        if(count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        count += other.count;
+        for(int h=0; h<other.sizes.length; h++)
+            for(int i=0; i<other.sizes[h]; i++)
+                append(h, other.levels[h][i]);
+
+        retained += other.retained;
+        compress();
+
+        return this;
+
+    }
+
+    /**
+     * Returns the estimated quantile q of the recorded values: the value that about q * count
+     * values are lower than or equal to. Quantile 0 is the minimum and quantile 1 the maximum.
+     *
+     * @param q Quantile between 0 and 1, like 0.99 for p99
+     * @return  Estimated quantile, or NaN if the sketch is empty
+     * @throws IllegalArgumentException if q is not between 0 and 1
+     */
+    public double getQuantile(double q) throws IllegalArgumentException {
+        return getQuantiles(q)[0];
+    }
+
+    /**
+     * Returns the estimated quantiles of the recorded values, see {@link #getQuantile(double)}.
+     *
+     * @param qs Quantiles between 0 and 1
+     * @return   Estimated quantiles in the same order, or NaN values if the sketch is empty
+     * @throws IllegalArgumentException if a quantile is not between 0 and 1
+     */
+    public double[] getQuantiles(double... qs) throws IllegalArgumentException {
+
+        for(double q : qs)
+            if(!(q >= 0 && q <= 1))
+                throw new IllegalArgumentException("quantile must be between 0 and 1");
+
+        double[] quantiles = new double[qs.length];
+        if(count == 0) {
+            Arrays.fill(quantiles, Double.NaN);
+            return quantiles;
+        }
+
+        //sorted copies of the levels, walked together in value order
+        double[][] sorted = new double[sizes.length][];
+        for(int h=0; h<sizes.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+
+        for(int j=0; j<qs.length; j++)
+            quantiles[j] = qs[j] == 0 ? min : qs[j] == 1 ? max : walk(sorted, Math.max(1, (long) Math.ceil(qs[j] * count)));
+
+        return quantiles;
+
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Minimum recorded value, or NaN if the sketch is empty
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return Maximum recorded value, or NaN if the sketch is empty
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return Number of values kept by the sketch, bounded whatever the number of recorded values
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch[k=" + k + ", count=" + count + ", retained=" + retained + ", min=" + min
+            + ", max=" + max + "]";
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private double walk(double[][] sorted, long rank) {
+
+        int[] heads = new int[sorted.length];
+        long cumulated = 0;
+
+        while(true) {
+
+            int lowest = -1;
+            for(int h=0; h<sorted.length; h++)
+                if(heads[h] < sorted[h].length && (lowest < 0 || sorted[h][heads[h]] < sorted[lowest][heads[lowest]]))
+                    lowest = h;
+
+            if(lowest < 0) return max;
+
+            double value = sorted[lowest][heads[lowest]++];
+            cumulated += 1L << lowest;
+            if(cumulated >= rank) return value;
+
+        }
+
+    }
+
+    private int capacity(int level) {
+
+        int depth = sizes.length - 1 - level;
+        return Math.max(MIN_K, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+
+    }
+
+    private void append(int level, double value) {
+
+        if(level == sizes.length) {
+
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            levels[level] = new double[capacity(level)];
+
+            capacity = 0;
+            for(int h=0; h<sizes.length; h++)
+                capacity += capacity(h);
+
+        }
+
+        double[] values = levels[level];
+        if(sizes[level] == values.length)
+            levels[level] = values = Arrays.copyOf(values, values.length * 2);
+
+        values[sizes[level]++] = value;
+
+    }
+
+    private void compress() {
+
+        while(retained > capacity) {
+
+            for(int h=0; h<sizes.length; h++) {
+                if(sizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+
+        }
+
+    }
+
+    private void compact(int level) {
+
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+
+        //an odd value out stays in the level, so the promoted weight is exact
+        int kept = size & 1;
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+
+        for(int i=kept+offset; i<size; i+=2)
+            append(level + 1, values[i]);
+
+        sizes[level] = kept;
+        retained -= (size - kept) / 2;
+
+    }
+
+}
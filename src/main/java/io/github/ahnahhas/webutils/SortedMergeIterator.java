@@ -0,0 +1,156 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link java.util.Iterator} merging iterators already sorted by the same comparator into one
+ * sorted iteration. The next element of each source is kept in a binary heap of source indices, so
+ * each element costs O(log k) comparisons for k sources, and sources are only read when the merged
+ * iteration needs their next element. Equal elements keep the order of their sources. Duplicates,
+ * according to the comparator, may be collapsed into their first occurrence.
+ * @author Ahmed Amin Nahhas
+ */
+final class SortedMergeIterator<T> implements Iterator<T> {
+
+    private final Comparator<? super T> comparator;
+    private final Iterator<? extends T>[] sources;
+    private final boolean distinct;
+
+    //next element of each source, and indices of sources with a next element as a min-heap
+    private final Object[] heads;
+    private final int[] heap;
+    private int heapSize = -1;
+
+    private Object last;
+    private boolean emitted;
+
+    //the smallest source is read again only when the next element is needed
+    private boolean consumed;
+
+    /**
+     * Returns an Iterator merging sorted sources.
+     *
+     * @param comparator Comparator the sources are sorted by
+     * @param sources    Sorted iterators to merge
+     * @param distinct   Boolean to collapse elements equal to the previous one
+     */
+    SortedMergeIterator(Comparator<? super T> comparator, Iterator<? extends T>[] sources, boolean distinct) {
+
+        this.comparator = comparator;
+        this.sources = sources;
+        this.distinct = distinct;
+        this.heads = new Object[sources.length];
+        this.heap = new int[sources.length];
+
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if(heapSize < 0) initialize();
+
+        if(consumed) {
+            consumed = false;
+            advance();
+        }
+
+        if(distinct && emitted)
+            while(heapSize > 0 && compare(heap[0], last) == 0)
+                advance();
+
+        return heapSize > 0;
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+
+        if(!hasNext())
+            throw new NoSuchElementException();
+
+        T element = (T) heads[heap[0]];
+        consumed = true;
+
+        if(distinct) {
+            last = element;
+            emitted = true;
+        }
+
+        return element;
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private void initialize() {
+
+        heapSize = 0;
+        for(int i=0; i<sources.length; i++) {
+
+            if(sources[i].hasNext()) {
+                heads[i] = sources[i].next();
+                heap[heapSize++] = i;
+            }
+
+        }
+
+        for(int i=heapSize/2-1; i>=0; i--)
+            siftDown(i);
+
+    }
+
+    //replaces the head of the smallest source by its next element, or removes the source
+    private void advance() {
+
+        int source = heap[0];
+
+        if(sources[source].hasNext()) {
+            heads[source] = sources[source].next();
+        } else {
+            heads[source] = null;
+            heap[0] = heap[--heapSize];
+        }
+
+        siftDown(0);
+
+    }
+
+    private void siftDown(int index) {
+
+        int source = heap[index];
+
+        while(true) {
+
+            int child = 2 * index + 1;
+            if(child >= heapSize) break;
+
+            if(child + 1 < heapSize && less(heap[child + 1], heap[child]))
+                child++;
+
+            if(!less(heap[child], source)) break;
+
+            heap[index] = heap[child];
+            index = child;
+
+        }
+
+        heap[index] = source;
+
+    }
+
+    private boolean less(int left, int right) {
+
+        int comparison = compare(left, heads[right]);
+        return comparison < 0 || (comparison == 0 && left < right);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(int source, Object element) {
+        return comparator.compare((T) heads[source], (T) element);
+    }
+
+}
@@ -0,0 +1,190 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * {@link java.util.concurrent.Flow.Publisher} of the elements of a {@link java.util.stream.Stream}.
+ * The Stream is only traversed as elements are requested, and is closed once completed, failed or
+ * cancelled. Streams can only be traversed once, so a single subscriber is accepted, others receive
+ * an {@link java.lang.IllegalStateException}. Elements are emitted by the executor, or by the thread
+ * requesting them if there is none, without recursion when subscribers request from onNext.
+ * @author Ahmed Amin Nahhas
+ */
+final class StreamPublisher<T> implements Flow.Publisher<T> {
+
+    //subscription of rejected subscribers, ignoring their requests
+    private static final Flow.Subscription REJECTED = new Flow.Subscription() {
+
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+
+    };
+
+    private final Stream<? extends T> stream;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Returns a Publisher of the elements of stream.
+     *
+     * @param stream   Stream to publish
+     * @param executor Executor emitting the elements, or null to emit them on the requesting thread
+     */
+    StreamPublisher(Stream<? extends T> stream, Executor executor) {
+
+        this.stream = stream;
+        this.executor = executor;
+
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+
+        Objects.requireNonNull(subscriber);
+
+        if(!subscribed.compareAndSet(false, true)) {
+
+            subscriber.onSubscribe(REJECTED);
+            subscriber.onError(new IllegalStateException("Stream publishers accept a single subscriber"));
+            return;
+
+        }
+
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private final class StreamSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean done;
+        private Iterator<? extends T> iterator;
+        private volatile Throwable invalidRequest;
+
+        private StreamSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+
+            if(n <= 0)
+                invalidRequest = new IllegalArgumentException("Requested elements must be positive, was " + n);
+            else
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+
+            schedule();
+
+        }
+
+        @Override
+        public void cancel() {
+
+            if(!done) {
+                done = true;
+                schedule();
+            }
+
+        }
+
+        @Override
+        public void run() {
+
+            int missed = 1;
+
+            do {
+
+                emit();
+                missed = work.addAndGet(-missed);
+
+            } while(missed != 0);
+
+        }
+
+        private void schedule() {
+
+            if(work.getAndIncrement() != 0) return;
+
+            if(executor == null)
+                run();
+            else
+                executor.execute(this);
+
+        }
+
+        private void emit() {
+
+            if(done) {
+                release();
+                return;
+            }
+
+            try {
+
+                if(invalidRequest != null) {
+                    terminate(invalidRequest);
+                    return;
+                }
+
+                if(iterator == null)
+                    iterator = stream.iterator();
+
+                while(!done && demand.get() > 0) {
+
+                    if(!iterator.hasNext()) {
+                        terminate(null);
+                        return;
+                    }
+
+                    subscriber.onNext(iterator.next());
+                    if(demand.get() != Long.MAX_VALUE)
+                        demand.decrementAndGet();
+
+                }
+
+                if(done) release();
+
+            } catch(RuntimeException e) {
+                terminate(e);
+            }
+
+        }
+
+        private void terminate(Throwable failure) {
+
+            if(done) return;
+
+            done = true;
+            release();
+
+            if(failure == null)
+                subscriber.onComplete();
+            else
+                subscriber.onError(failure);
+
+        }
+
+        private void release() {
+
+            iterator = null;
+            stream.close();
+
+        }
+
+    }
+
+}
@@ -1,15 +1,36 @@
 package io.github.ahnahhas.webutils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -23,7 +44,8 @@ public class StreamUtils {
     /**
      * Returns a {@link java.util.stream.Stream} from an {@link java.lang.Iterable}.
      * If isParallel is true, the returned Stream is parallel. Otherwise a sequential
-     * Stream is returned.
+     * Stream is returned. Collections are streamed from their own sized Spliterator,
+     * other iterables are split in batches of growing size.
      * 
      * @param <T>        Type (or super type) of Stream elements
      * @param iterable   Iterable to transform into Stream
@@ -31,8 +53,36 @@ public class StreamUtils {
      * @return           Stream from an Iterable
      */
     public static <T> Stream<T> fromIterable(Iterable<? extends T> iterable, boolean isParallel) {
-        return StreamSupport.stream(iterable.spliterator(), isParallel)
-            .map(Function.identity());
+        return fromIterable(iterable, Long.MAX_VALUE, isParallel);
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Stream} from an {@link java.lang.Iterable} of
+     * about sizeHint elements. The hint helps splitting parallel Streams over iterables
+     * of unknown size, like cursors, and is ignored for Collections.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param iterable   Iterable to transform into Stream
+     * @param sizeHint   Estimated number of elements, or Long.MAX_VALUE if unknown
+     * @param isParallel Boolean to return a parallel or sequential Stream
+     * @return           Stream from an Iterable
+     * @throws IllegalArgumentException if sizeHint is negative
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> fromIterable(Iterable<? extends T> iterable, long sizeHint, boolean isParallel) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(iterable);
+
+        if(sizeHint < 0)
+            throw new IllegalArgumentException("sizeHint must not be negative");
+
+        //elements are only read, a Spliterator of T subtype is a Spliterator of T
+        if(iterable instanceof Collection)
+            return StreamSupport.stream((Spliterator<T>) ((Collection<? extends T>) iterable).spliterator(), isParallel);
+
+        return StreamSupport.stream(new BatchSpliterator<T>(iterable, sizeHint), isParallel);
+
     }
 
     /**
@@ -46,6 +96,54 @@ public class StreamUtils {
         return fromIterable(iterable, false);
     }
 
+    /**
+     * Returns the lines of a file as a lazy {@link java.util.stream.Stream}, read through memory-mapped
+     * regions. Lines end with a line feed, a carriage return, or both. When the Stream is made parallel,
+     * the file is split at line ends so lines are decoded on every core. Charsets other than UTF-8,
+     * ISO-8859-1 and US-ASCII are read sequentially through {@link java.nio.file.Files#lines(Path, Charset)}.
+     * The Stream must be closed to release the file.
+     * 
+     * @param path    Path of the file
+     * @param charset Charset of the file
+     * @return        Stream of the lines of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<String> lines(Path path, Charset charset) throws IOException {
+
+        Objects.requireNonNull(charset);
+
+        if(!isLineSplittable(charset))
+            return Files.lines(path, charset);
+
+        return mappedLines(path, charset, false);
+
+    }
+
+    /**
+     * Returns the lines of a file as a lazy {@link java.util.stream.Stream}, read through memory-mapped
+     * regions, see {@link #lines(java.nio.file.Path, java.nio.charset.Charset)}. If zeroCopy is true and 
+     * the charset is ISO-8859-1 or US-ASCII, lines are {@link java.lang.CharSequence} views over the 
+     * mapped bytes instead of Strings, nothing is copied until toString is called. Views read bytes as 
+     * ISO-8859-1 and stay valid after the Stream is closed.
+     * 
+     * @param path     Path of the file
+     * @param charset  Charset of the file
+     * @param zeroCopy Boolean to return views over the mapped bytes when the charset allows it
+     * @return         Stream of the lines of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<CharSequence> lines(Path path, Charset charset, boolean zeroCopy) throws IOException {
+
+        Objects.requireNonNull(charset);
+
+        boolean latin1 = StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+        if(zeroCopy && latin1)
+            return mappedLines(path, charset, true);
+
+        return lines(path, charset).map(CharSequence.class::cast);
+
+    }
+
     /**
      * Returns any element from the {@link java.util.stream.Stream}. If Stream is
      * empty, then a null reference is returned.
@@ -89,6 +187,163 @@ public class StreamUtils {
         return toCollection(stream, ArrayList::new);
     }
 
+    /**
+     * Collects {@link java.util.stream.Stream} elements into an unmodifiable {@link java.util.List}
+     * backed by an array trimmed to the number of elements. If the Stream is empty, the List
+     * returned is also empty. See {@link #toCompactList()}.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to collect
+     * @return       Unmodifiable List of Stream elements
+     */
+    public static <T> List<T> toCompactList(Stream<? extends T> stream) {
+        return stream.collect(toCompactList());
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} of elements into an unmodifiable {@link java.util.List}
+     * backed by an array trimmed to the number of elements, using less memory than an
+     * {@link java.util.ArrayList}. Null elements are accepted. Partial results of parallel
+     * Streams are merged with a single array copy.
+     * 
+     * @param <T> Type (or super type) of Stream elements
+     * @return    Collector into an unmodifiable List
+     */
+    public static <T> Collector<T, ?, List<T>> toCompactList() {
+        return ArrayCollectors.toCompactList();
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} of elements mapped into ints, collected into an
+     * int array without boxing. Partial results of parallel Streams are merged with a single array copy.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to an int
+     * @return       Collector into an int array
+     */
+    public static <T> Collector<T, ?, int[]> toIntArray(ToIntFunction<? super T> mapper) {
+
+        Objects.requireNonNull(mapper);
+        return ArrayCollectors.toIntArray(mapper);
+
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} of elements mapped into longs, collected into a
+     * long array without boxing. Partial results of parallel Streams are merged with a single array copy.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to a long
+     * @return       Collector into a long array
+     */
+    public static <T> Collector<T, ?, long[]> toLongArray(ToLongFunction<? super T> mapper) {
+
+        Objects.requireNonNull(mapper);
+        return ArrayCollectors.toLongArray(mapper);
+
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} of elements mapped into doubles, collected into a
+     * double array without boxing. Partial results of parallel Streams are merged with a single array copy.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to a double
+     * @return       Collector into a double array
+     */
+    public static <T> Collector<T, ?, double[]> toDoubleArray(ToDoubleFunction<? super T> mapper) {
+
+        Objects.requireNonNull(mapper);
+        return ArrayCollectors.toDoubleArray(mapper);
+
+    }
+
+    /**
+     * Returns a concurrent {@link java.util.stream.Collector} keeping a single element for each key 
+     * returned by the key mapper, safe and scalable on parallel {@link java.util.stream.Stream}. Keys are 
+     * compared with equals and hashCode, null keys and elements are accepted. Which of the duplicates is 
+     * kept is not determined, and the returned {@link java.util.List} is in no particular order.
+     * 
+     * @param <T>       Type (or super type) of Stream elements
+     * @param <K>       Type of keys
+     * @param keyMapper Mapper to transform a Stream element to its key
+     * @return          Concurrent Collector of distinct elements by key
+     */
+    public static <T, K> Collector<T, ?, List<T>> distinctByKey(Function<? super T, ? extends K> keyMapper) {
+
+        Objects.requireNonNull(keyMapper);
+        return ConcurrentCollectors.distinctByKey(keyMapper, null);
+
+    }
+
+    /**
+     * Returns a concurrent {@link java.util.stream.Collector} keeping a single element for each key 
+     * returned by the key mapper, into a {@link java.util.List} sorted by key. Keys are only sorted 
+     * once every element is collected. See {@link #distinctByKey(java.util.function.Function)}.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param <K>        Type of keys
+     * @param keyMapper  Mapper to transform a Stream element to its key
+     * @param comparator Comparator sorting the keys
+     * @return           Concurrent Collector of distinct elements sorted by key
+     */
+    public static <T, K> Collector<T, ?, List<T>> distinctByKey(Function<? super T, ? extends K> keyMapper,
+        Comparator<? super K> comparator) {
+
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(comparator);
+        return ConcurrentCollectors.distinctByKey(keyMapper, comparator);
+
+    }
+
+    /**
+     * Returns a concurrent {@link java.util.stream.Collector} grouping elements by the key returned by
+     * the key mapper, each group being collected by the downstream Collector. Threads of a parallel
+     * {@link java.util.stream.Stream} accumulate into separate stripes, merged once every element is
+     * collected, so the downstream Collector does not need to be thread-safe. Null keys are accepted,
+     * and the returned {@link java.util.Map} is in no particular order.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param <K>        Type of keys
+     * @param <A>        Intermediate type of the downstream Collector
+     * @param <D>        Result type of the downstream Collector
+     * @param keyMapper  Mapper to transform a Stream element to its key
+     * @param downstream Collector of the elements of a key
+     * @return           Concurrent Collector grouping elements by key
+     */
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingConcurrent(Function<? super T, ? extends K> keyMapper,
+        Collector<? super T, A, D> downstream) {
+
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(downstream);
+        return ConcurrentCollectors.groupingBy(keyMapper, null, downstream);
+
+    }
+
+    /**
+     * Returns a concurrent {@link java.util.stream.Collector} grouping elements by the key returned by
+     * the key mapper, into a {@link java.util.SortedMap} sorted by key. Keys are only sorted once every
+     * element is collected. See {@link #groupingConcurrent(java.util.function.Function, java.util.stream.Collector)}.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param <K>        Type of keys
+     * @param <A>        Intermediate type of the downstream Collector
+     * @param <D>        Result type of the downstream Collector
+     * @param keyMapper  Mapper to transform a Stream element to its key
+     * @param comparator Comparator sorting the keys
+     * @param downstream Collector of the elements of a key
+     * @return           Concurrent Collector grouping elements sorted by key
+     */
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingConcurrent(Function<? super T, ? extends K> keyMapper,
+        Comparator<? super K> comparator, Collector<? super T, A, D> downstream) {
+
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(downstream);
+        return ConcurrentCollectors.groupingBy(keyMapper, comparator, downstream);
+
+    }
+
     /**
      * Maps {@link java.util.stream.Stream} elements into ints, then sums the results.
      * If Stream is empty, then 0 is returned.
@@ -99,7 +354,165 @@ public class StreamUtils {
      * @return       Sum of mapped Stream elements
      */
     public static <T> long sum(Stream<? extends T> stream, ToIntFunction<? super T> mapper) {
-        return stream.mapToInt(mapper).sum();
+        return stream.mapToLong(mapper::applyAsInt).sum();
+    }
+
+    /**
+     * Returns any element from the {@link java.util.stream.Stream}, evaluated in parallel on pool
+     * instead of the common {@link java.util.concurrent.ForkJoinPool}. If Stream is empty, then a
+     * null reference is returned. Exceptions thrown by the Stream are rethrown as is, checked ones
+     * wrapped in a {@link java.util.concurrent.CompletionException}.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to find element from
+     * @param pool   Pool evaluating the Stream
+     * @return       Any element from the Steam
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> T anyElement(Stream<? extends T> stream, ForkJoinPool pool) throws CancellationException {
+
+        Objects.requireNonNull(pool);
+        return PooledExecution.invoke(pool, () -> anyElement(stream.parallel()));
+
+    }
+
+    /**
+     * Returns any element from the {@link java.util.stream.Stream}, evaluated in parallel on a
+     * new {@link java.util.concurrent.ForkJoinPool} of parallelism threads, shut down once done.
+     * See {@link #anyElement(java.util.stream.Stream, java.util.concurrent.ForkJoinPool)}.
+     * 
+     * @param <T>         Type (or super type) of Stream elements
+     * @param stream      Stream to find element from
+     * @param parallelism Maximum number of threads evaluating the Stream
+     * @return            Any element from the Steam
+     * @throws IllegalArgumentException if parallelism is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> T anyElement(Stream<? extends T> stream, int parallelism) 
+        throws IllegalArgumentException, CancellationException {
+
+        return PooledExecution.invoke(parallelism, () -> anyElement(stream.parallel()));
+
+    }
+
+    /**
+     * Collects {@link java.util.stream.Stream} elements into a {@link java.util.Collection},
+     * evaluated in parallel on pool instead of the common {@link java.util.concurrent.ForkJoinPool}.
+     * Exceptions thrown by the Stream are rethrown as is, checked ones wrapped in a
+     * {@link java.util.concurrent.CompletionException}. If the calling thread is interrupted, the
+     * evaluation is cancelled, subtasks already running in pool may still complete.
+     * 
+     * @param <T>                Type (or super type) of Stream elements
+     * @param <C>                Type of Collection used to collect Stream elements
+     * @param stream             Stream to collect
+     * @param collectionSupplier Supplier of the collector collection
+     * @param pool               Pool evaluating the Stream
+     * @return                   Collection of Stream elements
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T, C extends Collection<T>> C toCollection(Stream<? extends T> stream,
+        Supplier<? extends C> collectionSupplier, ForkJoinPool pool) throws CancellationException {
+
+        Objects.requireNonNull(pool);
+        return PooledExecution.invoke(pool, () -> toCollection(stream.parallel(), collectionSupplier));
+
+    }
+
+    /**
+     * Collects {@link java.util.stream.Stream} elements into a {@link java.util.Collection},
+     * evaluated in parallel on a new {@link java.util.concurrent.ForkJoinPool} of parallelism
+     * threads, shut down once done. See {@link #toCollection(java.util.stream.Stream, 
+     * java.util.function.Supplier, java.util.concurrent.ForkJoinPool)}.
+     * 
+     * @param <T>                Type (or super type) of Stream elements
+     * @param <C>                Type of Collection used to collect Stream elements
+     * @param stream             Stream to collect
+     * @param collectionSupplier Supplier of the collector collection
+     * @param parallelism        Maximum number of threads evaluating the Stream
+     * @return                   Collection of Stream elements
+     * @throws IllegalArgumentException if parallelism is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T, C extends Collection<T>> C toCollection(Stream<? extends T> stream,
+        Supplier<? extends C> collectionSupplier, int parallelism) throws IllegalArgumentException, CancellationException {
+
+        return PooledExecution.invoke(parallelism, () -> toCollection(stream.parallel(), collectionSupplier));
+
+    }
+
+    /**
+     * Collects {@link java.util.stream.Stream} elements into an {@link java.util.ArrayList},
+     * evaluated in parallel on pool instead of the common {@link java.util.concurrent.ForkJoinPool}.
+     * See {@link #toCollection(java.util.stream.Stream, java.util.function.Supplier, 
+     * java.util.concurrent.ForkJoinPool)}.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to collect
+     * @param pool   Pool evaluating the Stream
+     * @return       List of Stream elements
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> List<T> toList(Stream<? extends T> stream, ForkJoinPool pool) throws CancellationException {
+        return toCollection(stream, ArrayList::new, pool);
+    }
+
+    /**
+     * Collects {@link java.util.stream.Stream} elements into an {@link java.util.ArrayList},
+     * evaluated in parallel on a new {@link java.util.concurrent.ForkJoinPool} of parallelism
+     * threads, shut down once done.
+     * 
+     * @param <T>         Type (or super type) of Stream elements
+     * @param stream      Stream to collect
+     * @param parallelism Maximum number of threads evaluating the Stream
+     * @return            List of Stream elements
+     * @throws IllegalArgumentException if parallelism is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> List<T> toList(Stream<? extends T> stream, int parallelism) 
+        throws IllegalArgumentException, CancellationException {
+
+        return toCollection(stream, ArrayList::new, parallelism);
+
+    }
+
+    /**
+     * Maps {@link java.util.stream.Stream} elements into ints, then sums the results, evaluated in
+     * parallel on pool instead of the common {@link java.util.concurrent.ForkJoinPool}. 
+     * If Stream is empty, then 0 is returned.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to sum
+     * @param mapper Mapper to transform a Stream element to an int
+     * @param pool   Pool evaluating the Stream
+     * @return       Sum of mapped Stream elements
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> long sum(Stream<? extends T> stream, ToIntFunction<? super T> mapper, ForkJoinPool pool) 
+        throws CancellationException {
+
+        Objects.requireNonNull(pool);
+        return PooledExecution.invoke(pool, () -> sum(stream.parallel(), mapper));
+
+    }
+
+    /**
+     * Maps {@link java.util.stream.Stream} elements into ints, then sums the results, evaluated in
+     * parallel on a new {@link java.util.concurrent.ForkJoinPool} of parallelism threads, shut down
+     * once done. If Stream is empty, then 0 is returned.
+     * 
+     * @param <T>         Type (or super type) of Stream elements
+     * @param stream      Stream to sum
+     * @param mapper      Mapper to transform a Stream element to an int
+     * @param parallelism Maximum number of threads evaluating the Stream
+     * @return            Sum of mapped Stream elements
+     * @throws IllegalArgumentException if parallelism is lower than 1
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> long sum(Stream<? extends T> stream, ToIntFunction<? super T> mapper, int parallelism) 
+        throws IllegalArgumentException, CancellationException {
+
+        return PooledExecution.invoke(parallelism, () -> sum(stream.parallel(), mapper));
+
     }
 
     /**
@@ -119,6 +532,431 @@ public class StreamUtils {
 
     }
 
+    /**
+     * Maps {@link java.util.stream.Stream} elements into ints or longs, then computes their count, sum,
+     * minimum, maximum, mean and variance in a single pass. The sum never overflows.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream which statistics to compute
+     * @param mapper Mapper to transform a Stream element to an int or a long
+     * @return       Statistics of mapped Stream elements
+     */
+    public static <T> LongStatistics stats(Stream<? extends T> stream, ToLongFunction<? super T> mapper) {
+        return stream.collect(toStats(mapper));
+    }
+
+    /**
+     * Maps {@link java.util.stream.Stream} elements into doubles, then computes their count, compensated
+     * sum, minimum, maximum, mean and variance in a single pass.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream which statistics to compute
+     * @param mapper Mapper to transform a Stream element to a double
+     * @return       Statistics of mapped Stream elements
+     */
+    public static <T> DoubleStatistics doubleStats(Stream<? extends T> stream, ToDoubleFunction<? super T> mapper) {
+        return stream.collect(toDoubleStats(mapper));
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} computing the {@link LongStatistics} of elements
+     * mapped into ints or longs. Partial results of parallel Streams are merged, and no object is
+     * allocated per element.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to an int or a long
+     * @return       Collector of statistics
+     */
+    public static <T> Collector<T, ?, LongStatistics> toStats(ToLongFunction<? super T> mapper) {
+
+        Objects.requireNonNull(mapper);
+        return Collector.of(LongStatistics::new, (stats, element) -> stats.accept(mapper.applyAsLong(element)),
+            LongStatistics::combine, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} computing the {@link DoubleStatistics} of elements
+     * mapped into doubles. Partial results of parallel Streams are merged, and no object is
+     * allocated per element.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to a double
+     * @return       Collector of statistics
+     */
+    public static <T> Collector<T, ?, DoubleStatistics> toDoubleStats(ToDoubleFunction<? super T> mapper) {
+
+        Objects.requireNonNull(mapper);
+        return Collector.of(DoubleStatistics::new, (stats, element) -> stats.accept(mapper.applyAsDouble(element)),
+            DoubleStatistics::combine, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+
+    }
+
+    /**
+     * Maps {@link java.util.stream.Stream} elements into doubles, then records them in a
+     * {@link QuantileSketch} of default accuracy, estimating quantiles like p50, p95 or p99
+     * in bounded memory.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream which quantiles to estimate
+     * @param mapper Mapper to transform a Stream element to a double
+     * @return       Quantile sketch of mapped Stream elements
+     */
+    public static <T> QuantileSketch quantiles(Stream<? extends T> stream, ToDoubleFunction<? super T> mapper) {
+        return stream.collect(toQuantileSketch(mapper, QuantileSketch.DEFAULT_K));
+    }
+
+    /**
+     * Returns a {@link java.util.stream.Collector} recording elements mapped into doubles in a
+     * {@link QuantileSketch} of accuracy k. Sketches of parallel Streams are merged.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param mapper Mapper to transform a Stream element to a double
+     * @param k      Accuracy parameter, the rank error is about 1.7 / k
+     * @return       Collector of quantile sketch
+     * @throws IllegalArgumentException if k is lower than {@link QuantileSketch#MIN_K}
+     */
+    public static <T> Collector<T, ?, QuantileSketch> toQuantileSketch(ToDoubleFunction<? super T> mapper, int k) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(mapper);
+
+        if(k < QuantileSketch.MIN_K)
+            throw new IllegalArgumentException("k must be at least " + QuantileSketch.MIN_K);
+
+        return Collector.of(() -> new QuantileSketch(k), (sketch, element) -> sketch.accept(mapper.applyAsDouble(element)),
+            QuantileSketch::combine, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+
+    }
+
+    /**
+     * Returns a lazy sequential {@link java.util.stream.Stream} of the elements of a 
+     * {@link java.util.concurrent.Flow.Publisher}. The publisher is subscribed when the Stream is
+     * consumed, and at most prefetch elements are requested ahead of the consumer, which blocks
+     * until the next element is published. Errors signaled by the publisher are rethrown by the
+     * Stream, checked ones wrapped in a {@link java.util.concurrent.CompletionException}. Closing 
+     * the Stream cancels the subscription.
+     * 
+     * @param <T>       Type (or super type) of published elements
+     * @param publisher Publisher to subscribe to
+     * @param prefetch  Maximum number of elements requested ahead of the consumer
+     * @return          Stream of published elements
+     * @throws IllegalArgumentException if prefetch is lower than 1
+     */
+    public static <T> Stream<T> fromPublisher(Flow.Publisher<? extends T> publisher, int prefetch) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(publisher);
+
+        if(prefetch < 1)
+            throw new IllegalArgumentException("prefetch must be greater than 0");
+
+        PublisherIterator<T> iterator = new PublisherIterator<>(prefetch);
+        return StreamSupport.stream(() -> {
+
+            publisher.subscribe(iterator);
+            return Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+
+        }, Spliterator.ORDERED | Spliterator.NONNULL, false)
+            .onClose(iterator::cancel);
+
+    }
+
+    /**
+     * Subscribes to a {@link java.util.concurrent.Flow.Publisher} and returns a blocking
+     * {@link java.util.Iterator} of its elements, requesting at most prefetch elements ahead
+     * of the consumer. See {@link #fromPublisher(java.util.concurrent.Flow.Publisher, int)}.
+     * 
+     * @param <T>       Type (or super type) of published elements
+     * @param publisher Publisher to subscribe to
+     * @param prefetch  Maximum number of elements requested ahead of the consumer
+     * @return          Iterator of published elements
+     * @throws IllegalArgumentException if prefetch is lower than 1
+     */
+    public static <T> Iterator<T> toIterator(Flow.Publisher<? extends T> publisher, int prefetch) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(publisher);
+
+        if(prefetch < 1)
+            throw new IllegalArgumentException("prefetch must be greater than 0");
+
+        PublisherIterator<T> iterator = new PublisherIterator<>(prefetch);
+        publisher.subscribe(iterator);
+        return iterator;
+
+    }
+
+    /**
+     * Returns a {@link java.util.concurrent.Flow.Publisher} of the elements of a 
+     * {@link java.util.stream.Stream}. The Stream is traversed lazily, as the subscriber requests
+     * elements, on the requesting thread. It is closed once completed, failed or cancelled.
+     * A Stream can only be traversed once, so only the first subscriber is accepted.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to publish
+     * @return       Publisher of Stream elements
+     */
+    public static <T> Flow.Publisher<T> toPublisher(Stream<? extends T> stream) {
+
+        Objects.requireNonNull(stream);
+        return new StreamPublisher<>(stream, null);
+
+    }
+
+    /**
+     * Returns a {@link java.util.concurrent.Flow.Publisher} of the elements of a 
+     * {@link java.util.stream.Stream}, emitted by the executor as the subscriber requests them.
+     * See {@link #toPublisher(java.util.stream.Stream)}.
+     * 
+     * @param <T>      Type (or super type) of Stream elements
+     * @param stream   Stream to publish
+     * @param executor Executor traversing the Stream
+     * @return         Publisher of Stream elements
+     */
+    public static <T> Flow.Publisher<T> toPublisher(Stream<? extends T> stream, Executor executor) {
+
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(executor);
+        return new StreamPublisher<>(stream, executor);
+
+    }
+
+    /**
+     * Returns a sequential {@link java.util.stream.Stream} of the elements of the given one, traversed
+     * ahead of the consumer by a task of the executor. At most bufferSize elements are prefetched, so a
+     * slow source and a slow consumer overlap instead of running in lockstep. The task starts when the
+     * returned Stream is consumed. A failure of the source is rethrown to the consumer, checked ones
+     * wrapped in a {@link java.util.concurrent.CompletionException}. Closing the returned Stream stops
+     * the task, which closes the given Stream, so the returned Stream should be closed if it is not
+     * fully consumed.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param stream     Stream to prefetch
+     * @param bufferSize Maximum number of prefetched elements
+     * @param executor   Executor running the prefetching task
+     * @return           Stream of prefetched elements
+     * @throws IllegalArgumentException if bufferSize is lower than 1
+     */
+    public static <T> Stream<T> prefetch(Stream<? extends T> stream, int bufferSize, Executor executor) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(executor);
+
+        if(bufferSize < 1)
+            throw new IllegalArgumentException("bufferSize must be greater than 0");
+
+        PrefetchIterator<T> iterator = new PrefetchIterator<>(stream, bufferSize);
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(iterator.start(executor), 
+            Spliterator.ORDERED), Spliterator.ORDERED, false)
+            .onClose(iterator::cancel);
+
+    }
+
+    /**
+     * Returns a sequential {@link java.util.stream.Stream} of the elements of the given one, traversed
+     * ahead of the consumer by a dedicated thread, a virtual thread on Java 21 and later. See 
+     * {@link #prefetch(java.util.stream.Stream, int, java.util.concurrent.Executor)}.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param stream     Stream to prefetch
+     * @param bufferSize Maximum number of prefetched elements
+     * @return           Stream of prefetched elements
+     * @throws IllegalArgumentException if bufferSize is lower than 1
+     */
+    public static <T> Stream<T> prefetch(Stream<? extends T> stream, int bufferSize) throws IllegalArgumentException {
+
+        return prefetch(stream, bufferSize, task -> {
+
+            ExecutorService executor = ConcurrentExecutors.newExecutor(1);
+            executor.execute(task);
+            executor.shutdown();
+
+        });
+
+    }
+
+    /**
+     * Returns a lazy {@link java.util.stream.Stream} of consecutive batches of size elements.
+     * The last batch holds the remaining elements and may be smaller. Batches are unmodifiable
+     * {@link java.util.List} views that may share a backing array. The returned Stream is parallel
+     * if the given one is, and splits on batch boundaries when the given Stream has a known size.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to batch
+     * @param size   Number of elements in a batch
+     * @return       Stream of batches
+     * @throws IllegalArgumentException if size is lower than 1
+     */
+    public static <T> Stream<List<T>> batch(Stream<? extends T> stream, int size) throws IllegalArgumentException {
+
+        if(size < 1)
+            throw new IllegalArgumentException("size must be greater than 0");
+
+        return windows(stream, size, size, true);
+
+    }
+
+    /**
+     * Returns a lazy {@link java.util.stream.Stream} of sliding windows of size elements, a new
+     * window starting every step elements. Only complete windows are returned, so a Stream with
+     * less than size elements returns no window. Windows are unmodifiable {@link java.util.List}
+     * views sharing a backing array, overlapping elements are not copied. The returned Stream is
+     * parallel if the given one is, and splits on window boundaries when the given Stream has a
+     * known size.
+     * 
+     * @param <T>    Type (or super type) of Stream elements
+     * @param stream Stream to slide over
+     * @param size   Number of elements in a window
+     * @param step   Number of elements between the starts of two windows
+     * @return       Stream of windows
+     * @throws IllegalArgumentException if size or step is lower than 1
+     */
+    public static <T> Stream<List<T>> sliding(Stream<? extends T> stream, int size, int step) 
+        throws IllegalArgumentException {
+
+        if(size < 1 || step < 1)
+            throw new IllegalArgumentException("size and step must be greater than 0");
+
+        return windows(stream, size, step, false);
+
+    }
+
+    /**
+     * Merges {@link java.util.stream.Stream}s already sorted by the comparator into one lazy sorted
+     * Stream, without sorting again. Elements are pulled from the given Streams on demand through a
+     * heap, equal elements keep the order of their Streams. Streams containing null references
+     * need a null friendly comparator, like {@link CollectionUtils#nullFirstComparator(java.util.Comparator)}
+     * or {@link CollectionUtils#nullLastComparator(java.util.Comparator)}. Closing the returned Stream
+     * closes the given ones.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param comparator Comparator the Streams are sorted by
+     * @param streams    Sorted Streams to merge
+     * @return           Sorted Stream of every element
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Stream<T> mergeSorted(Comparator<? super T> comparator, Stream<? extends T>... streams) {
+        return mergeSorted(comparator, false, streams);
+    }
+
+    /**
+     * Merges {@link java.util.stream.Stream}s already sorted by the comparator into one lazy sorted
+     * Stream. If distinct is true, elements equal to the previous one according to the comparator are
+     * filtered out on the fly, across and within Streams. 
+     * See {@link #mergeSorted(java.util.Comparator, java.util.stream.Stream...)}.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param comparator Comparator the Streams are sorted by
+     * @param distinct   Boolean to filter out duplicate elements
+     * @param streams    Sorted Streams to merge
+     * @return           Sorted Stream of the elements
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Stream<T> mergeSorted(Comparator<? super T> comparator, boolean distinct, 
+        Stream<? extends T>... streams) {
+
+        Objects.requireNonNull(comparator);
+
+        Iterator<? extends T>[] iterators = new Iterator[streams.length];
+        Stream<T> merged = StreamSupport.stream(() -> {
+
+            for(int i=0; i<streams.length; i++)
+                iterators[i] = streams[i].iterator();
+
+            return Spliterators.spliteratorUnknownSize(
+                new SortedMergeIterator<T>(comparator, iterators, distinct), Spliterator.ORDERED);
+
+        }, Spliterator.ORDERED, false);
+
+        for(Stream<? extends T> stream : streams)
+            merged = merged.onClose(stream::close);
+
+        return merged;
+
+    }
+
+    /**
+     * Merges {@link java.util.Iterator}s already sorted by the comparator into one lazy sorted
+     * Stream. If distinct is true, elements equal to the previous one according to the comparator are
+     * filtered out on the fly. See {@link #mergeSorted(java.util.Comparator, java.util.stream.Stream...)}.
+     * 
+     * @param <T>        Type (or super type) of Iterator elements
+     * @param comparator Comparator the Iterators are sorted by
+     * @param distinct   Boolean to filter out duplicate elements
+     * @param iterators  Sorted Iterators to merge
+     * @return           Sorted Stream of the elements
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Stream<T> mergeSorted(Comparator<? super T> comparator, boolean distinct, 
+        Iterator<? extends T>... iterators) {
+
+        Objects.requireNonNull(comparator);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new SortedMergeIterator<T>(comparator, iterators.clone(), distinct), Spliterator.ORDERED), false);
+
+    }
+
+    /**
+     * Sorts a {@link java.util.stream.Stream} that may not fit in the heap. At most heapBudget elements
+     * are sorted in memory at once, each full batch is written as a sorted run to a temporary file with
+     * the codec, and the runs are merged back lazily into the returned Stream. The sort is stable. The
+     * given Stream is only read when the returned one is consumed. Closing the returned Stream deletes
+     * the remaining temporary files.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param stream     Stream to sort
+     * @param comparator Comparator sorting the elements
+     * @param codec      Codec writing the elements to temporary files and reading them back
+     * @param heapBudget Maximum number of elements sorted in heap at once
+     * @return           Sorted Stream
+     * @throws IllegalArgumentException if heapBudget is lower than 1
+     */
+    public static <T> Stream<T> sortedExternal(Stream<? extends T> stream, Comparator<? super T> comparator,
+        ElementCodec<T> codec, int heapBudget) throws IllegalArgumentException {
+
+        return sortedExternal(stream, comparator, codec, heapBudget, false);
+
+    }
+
+    /**
+     * Sorts a {@link java.util.stream.Stream} that may not fit in the heap, see 
+     * {@link #sortedExternal(java.util.stream.Stream, java.util.Comparator, ElementCodec, int)}. 
+     * If distinct is true, duplicate elements according to the comparator are filtered out while
+     * writing the runs and while merging them, only the first one is kept.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param stream     Stream to sort
+     * @param comparator Comparator sorting the elements
+     * @param codec      Codec writing the elements to temporary files and reading them back
+     * @param heapBudget Maximum number of elements sorted in heap at once
+     * @param distinct   Boolean to filter out duplicate elements
+     * @return           Sorted Stream
+     * @throws IllegalArgumentException if heapBudget is lower than 1
+     */
+    public static <T> Stream<T> sortedExternal(Stream<? extends T> stream, Comparator<? super T> comparator,
+        ElementCodec<T> codec, int heapBudget, boolean distinct) throws IllegalArgumentException {
+
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(codec);
+
+        if(heapBudget < 1)
+            throw new IllegalArgumentException("heapBudget must be greater than 0");
+
+        ExternalSorter<T> sorter = new ExternalSorter<>(comparator, codec, heapBudget, distinct);
+
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(sorter.sort(stream.iterator()), 
+            Spliterator.ORDERED), Spliterator.ORDERED, false)
+            .onClose(sorter::close)
+            .onClose(stream::close);
+
+    }
+
     /**
      * Returns a {@link java.util.function.Predicate} that filters out duplicate elements.
      * {@link java.util.stream.Stream} elements must implement (or inherit from) the 
@@ -136,6 +974,8 @@ public class StreamUtils {
     /**
      * Returns a {@link java.util.function.Predicate} that filters out duplicate elements.
      * The comparison is determined using a {@link java.util.Comparator} implementation.
+     * The Predicate returned is not thread-safe, for parallel Streams use
+     * {@link #filterDuplicateConcurrent(java.util.Comparator)}.
      * 
      * @param <T>        Type (or super type) of Stream elements
      * @param comparator The comparator implementation
@@ -156,4 +996,182 @@ public class StreamUtils {
 
     }
 
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out duplicate elements,
+     * safe to use on parallel {@link java.util.stream.Stream}. Stream elements must implement (or inherit 
+     * from) the {@link java.lang.Comparable} interface. The Predicate returned is null-friendly, if the 
+     * Stream contains multiple null references, then only one won't be filtered. On a parallel Stream, 
+     * which of the duplicates is kept is not determined unless the Stream is ordered and collected in order.
+     * 
+     * @param <T> Type (or super type) of Stream elements
+     * @return    Thread-safe, null-friendly Predicate that filters out duplicates
+     */
+    public static <T extends Comparable<? super T>> Predicate<T> filterDuplicateConcurrent() {
+        return filterDuplicateConcurrent(CollectionUtils.nullFirstComparator());
+    }
+
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out duplicate elements,
+     * safe to use on parallel {@link java.util.stream.Stream}. The comparison is determined using a 
+     * {@link java.util.Comparator} implementation. Every accepted element is remembered, for long-running 
+     * Streams use {@link #filterDuplicateConcurrent(java.util.Comparator, int)} or 
+     * {@link #filterDuplicateConcurrent(java.util.Comparator, java.time.Duration)}.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param comparator The comparator implementation
+     * @return           Thread-safe Predicate that filters out duplicates according to comparator
+     */
+    public static <T> Predicate<T> filterDuplicateConcurrent(Comparator<? super T> comparator) {
+
+        Objects.requireNonNull(comparator);
+        return ConcurrentDuplicateFilter.unbounded(comparator);
+
+    }
+
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out duplicate elements,
+     * remembering at most maxElements elements. When the limit is reached, the least recently seen element
+     * is forgotten, and passes the Predicate again if it shows up later. The comparison is determined using 
+     * a {@link java.util.Comparator} implementation.
+     * 
+     * @param <T>         Type (or super type) of Stream elements
+     * @param comparator  The comparator implementation
+     * @param maxElements Maximum number of remembered elements
+     * @return            Thread-safe, bounded Predicate that filters out duplicates according to comparator
+     * @throws IllegalArgumentException if maxElements is lower than 1
+     */
+    public static <T> Predicate<T> filterDuplicateConcurrent(Comparator<? super T> comparator, int maxElements) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(comparator);
+        if(maxElements < 1)
+            throw new IllegalArgumentException("maxElements must be greater than 0");
+
+        return ConcurrentDuplicateFilter.lru(comparator, maxElements);
+
+    }
+
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out elements equal to an 
+     * element accepted during the last time window. Once the window has elapsed since an element was 
+     * accepted, it is forgotten and passes the Predicate again. Windows longer than about 292 years,
+     * such as {@link java.time.temporal.ChronoUnit#FOREVER}, never expire. The comparison is determined 
+     * using a {@link java.util.Comparator} implementation.
+     * 
+     * @param <T>        Type (or super type) of Stream elements
+     * @param comparator The comparator implementation
+     * @param window     Time window during which duplicates are filtered out
+     * @return           Thread-safe Predicate that filters out duplicates within the time window
+     * @throws IllegalArgumentException if window is negative
+     */
+    public static <T> Predicate<T> filterDuplicateConcurrent(Comparator<? super T> comparator, Duration window) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(comparator);
+        if(window.isNegative())
+            throw new IllegalArgumentException("window must not be negative");
+
+        //windows too long for nanoseconds, such as ChronoUnit.FOREVER, never expire
+        long windowNanos = window.compareTo(Duration.ofNanos(Long.MAX_VALUE)) > 0 ? Long.MAX_VALUE : window.toNanos();
+        return ConcurrentDuplicateFilter.window(comparator, windowNanos);
+
+    }
+
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out duplicate elements
+     * using a scalable Bloom filter on the keys returned by keyFunction. Keys are not stored, so memory
+     * stays a few bits per distinct key, but a new element may be wrongly filtered out with a probability
+     * kept under fpp. When more than expectedInsertions elements pass, the filter grows. The returned
+     * {@link ApproximateDuplicateFilter} exposes its memory footprint and current false positive estimate.
+     * Keys other than CharSequence, Number or UUID references are hashed from their 32-bit hashCode, so fpp
+     * only holds up to about 2^32 distinct keys: use {@link #filterDuplicateApproxByHash} beyond that.
+     * 
+     * @param <T>                Type (or super type) of Stream elements
+     * @param keyFunction        The mapper returning the key of an element
+     * @param expectedInsertions Expected number of distinct keys
+     * @param fpp                Maximum probability of filtering out a new element, between 0 and 1 exclusive
+     * @return                   Thread-safe Predicate that filters out probable duplicates
+     * @throws IllegalArgumentException if expectedInsertions is lower than 1 or fpp is not between 0 and 1
+     */
+    public static <T> ApproximateDuplicateFilter<T> filterDuplicateApprox(Function<? super T, ?> keyFunction, 
+        long expectedInsertions, double fpp) throws IllegalArgumentException {
+
+        Objects.requireNonNull(keyFunction);
+        return filterDuplicateApproxByHash(ApproximateDuplicateFilter.keyHasher(keyFunction), expectedInsertions, fpp);
+
+    }
+
+    /**
+     * Returns a thread-safe {@link java.util.function.Predicate} that filters out duplicate elements
+     * using a scalable Bloom filter on the 64-bit key hashes returned by keyHasher, see
+     * {@link #filterDuplicateApprox(Function, long, double)}. Elements with equal hashes are considered
+     * duplicates, so keyHasher should spread distinct keys over the 64 bits.
+     * 
+     * @param <T>                Type (or super type) of Stream elements
+     * @param keyHasher          The function returning the 64-bit hash of the key of an element
+     * @param expectedInsertions Expected number of distinct keys
+     * @param fpp                Maximum probability of filtering out a new element, between 0 and 1 exclusive
+     * @return                   Thread-safe Predicate that filters out probable duplicates
+     * @throws IllegalArgumentException if expectedInsertions is lower than 1 or fpp is not between 0 and 1
+     */
+    public static <T> ApproximateDuplicateFilter<T> filterDuplicateApproxByHash(ToLongFunction<? super T> keyHasher, 
+        long expectedInsertions, double fpp) throws IllegalArgumentException {
+
+        Objects.requireNonNull(keyHasher);
+
+        if(expectedInsertions < 1)
+            throw new IllegalArgumentException("expectedInsertions must be greater than 0");
+        if(!(fpp > 0 && fpp < 1))
+            throw new IllegalArgumentException("fpp must be between 0 and 1 exclusive");
+
+        return new ApproximateDuplicateFilter<>(keyHasher, expectedInsertions, fpp);
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static <T> Stream<List<T>> windows(Stream<? extends T> stream, int size, int step, boolean partial) {
+
+        Objects.requireNonNull(stream);
+        return StreamSupport.stream(new WindowSpliterator<T>(stream.spliterator(), size, step, partial), stream.isParallel())
+            .onClose(stream::close);
+
+    }
+
+    private static boolean isLineSplittable(Charset charset) {
+
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)
+            || StandardCharsets.US_ASCII.equals(charset);
+
+    }
+
+    private static <T extends CharSequence> Stream<T> mappedLines(Path path, Charset charset, boolean view) 
+        throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+
+            return StreamSupport.stream(new MappedLineSpliterator<T>(channel, 0, channel.size(), charset, view), false)
+                .onClose(() -> close(channel));
+
+        } catch(IOException | RuntimeException e) {
+
+            channel.close();
+            throw e;
+
+        }
+
+    }
+
+    private static void close(FileChannel channel) {
+
+        try {
+            channel.close();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+
 }
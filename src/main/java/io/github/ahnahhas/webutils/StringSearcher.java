@@ -0,0 +1,458 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.Arrays;
+
+/**
+ * Precompiled substring search for a single pattern, to search the same pattern in many
+ * {@link java.lang.CharSequence} references. Patterns shorter than 16 chars are searched with
+ * Boyer-Moore-Horspool, which skips ahead by the distance from the last occurrence of the text char
+ * aligned with the end of the pattern. Longer patterns are searched with the Two-Way algorithm, in
+ * time linear in the length of the text and constant space, also skipping ahead with the Horspool
+ * table when the char aligned with the end of the pattern does not match.
+ * <p>
+ * Case-insensitive searchers compare chars converted with {@link java.lang.Character#toUpperCase(char)}.
+ * Instances are immutable and thread-safe. One-shot searches do not compile the pattern, except long
+ * patterns searched in long texts, so searching the same pattern repeatedly is faster with a searcher.
+ * @author Ahmed Amin Nahhas
+ */
+public final class StringSearcher {
+
+    //patterns at least this long are searched with Two-Way
+    private static final int TWO_WAY_LENGTH = 16;
+
+    //one-shot searches of patterns at least TWO_WAY_LENGTH long compile them from this text length
+    private static final int ONE_SHOT_LENGTH = 1 << 12;
+
+    //size of the shift table, chars are mapped to their low byte
+    private static final int TABLE_SIZE = 256;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String pattern;
+    private final boolean ignoreCase;
+    private final char[] folded;
+    private final int[] shifts;
+    private final int suffix;
+    private final int period;
+    private final boolean periodic;
+
+    /**
+     * Returns a searcher of pattern.
+     *
+     * @param pattern    CharSequence to search for
+     * @param ignoreCase Boolean to search case-insensitively
+     */
+    StringSearcher(CharSequence pattern, boolean ignoreCase) {
+
+        this.pattern = pattern.toString();
+        this.ignoreCase = ignoreCase;
+
+        int length = pattern.length();
+        this.folded = new char[length];
+        for(int i=0; i<length; i++)
+            folded[i] = fold(pattern.charAt(i), ignoreCase);
+
+        this.shifts = new int[TABLE_SIZE];
+        Arrays.fill(shifts, length);
+        for(int i=0; i<length-1; i++)
+            shifts[folded[i] & (TABLE_SIZE - 1)] = length - 1 - i;
+
+        if(length >= TWO_WAY_LENGTH) {
+
+            int[] factorization = criticalFactorization(folded);
+            int criticalSuffix = factorization[0];
+            int criticalPeriod = factorization[1];
+
+            this.periodic = criticalSuffix + criticalPeriod <= length
+                && regionEquals(folded, 0, criticalPeriod, criticalSuffix);
+            this.suffix = criticalSuffix;
+            this.period = periodic ? criticalPeriod : Math.max(criticalSuffix, length - criticalSuffix) + 1;
+
+        } else {
+
+            this.periodic = false;
+            this.suffix = 0;
+            this.period = 0;
+
+        }
+
+    }
+
+    /**
+     * Returns the searched pattern.
+     *
+     * @return Searched pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns true if the search is case-insensitive.
+     *
+     * @return boolean true if case-insensitive
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Verifies if text contains the pattern. If text is null, then false is returned.
+     *
+     * @param text CharSequence to search in
+     * @return     boolean containing the result of verification
+     */
+    public boolean contains(CharSequence text) {
+        return indexOf(text, 0) >= 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the pattern in text, or -1 if there is none
+     * or if text is null. The empty pattern occurs at index 0.
+     *
+     * @param text CharSequence to search in
+     * @return     Index of the first occurrence, or -1
+     */
+    public int indexOf(CharSequence text) {
+        return indexOf(text, 0);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the pattern in text, starting at fromIndex,
+     * or -1 if there is none or if text is null. A negative fromIndex is considered as 0.
+     *
+     * @param text      CharSequence to search in
+     * @param fromIndex Index to start the search from
+     * @return          Index of the first occurrence, or -1
+     */
+    public int indexOf(CharSequence text, int fromIndex) {
+
+        if(text == null) return -1;
+        return search(text, Math.max(0, fromIndex), null);
+
+    }
+
+    /**
+     * Returns the indexes of every occurrence of the pattern in text, in increasing order, overlapping
+     * occurrences included. If text is null or does not contain the pattern, an empty array is returned.
+     *
+     * @param text CharSequence to search in
+     * @return     Indexes of every occurrence
+     */
+    public int[] indexesOf(CharSequence text) {
+
+        if(text == null) return EMPTY;
+
+        Matches matches = new Matches();
+        search(text, 0, matches);
+        return matches.toArray();
+
+    }
+
+    @Override
+    public String toString() {
+        return "StringSearcher[pattern=" + pattern + ", ignoreCase=" + ignoreCase + "]";
+    }
+
+    /**
+     * Returns the index of the first occurrence of pattern in text, starting at fromIndex. Pattern is
+     * searched without allocation by a scan for its first char, verifying each candidate, and is only
+     * compiled when both pattern and text are long enough for the scan to take quadratic time.
+     *
+     * @param text       CharSequence to search in
+     * @param pattern    CharSequence to search for
+     * @param fromIndex  Index to start the search from
+     * @param ignoreCase Boolean to search case-insensitively
+     * @return           Index of the first occurrence, or -1
+     */
+    static int indexOf(CharSequence text, CharSequence pattern, int fromIndex, boolean ignoreCase) {
+
+        int length = text.length();
+        int patternLength = pattern.length();
+        int from = Math.max(0, fromIndex);
+
+        if(patternLength == 0) return from <= length ? from : -1;
+        if(length - from < patternLength) return -1;
+
+        if(patternLength >= TWO_WAY_LENGTH && length - from >= ONE_SHOT_LENGTH)
+            return new StringSearcher(pattern, ignoreCase).search(text, from, null);
+
+        if(!ignoreCase && text instanceof String && pattern instanceof String)
+            return ((String) text).indexOf((String) pattern, from);
+
+        return naiveIndexOf(text, pattern, from, ignoreCase);
+
+    }
+
+    /**
+     * Returns c converted for comparison, upper cased if ignoreCase, with an ASCII fast path.
+     *
+     * @param c          Char to convert
+     * @param ignoreCase Boolean to compare case-insensitively
+     * @return           Converted char
+     */
+    static char fold(char c, boolean ignoreCase) {
+
+        if(!ignoreCase) return c;
+        if(c < 128) return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        return Character.toUpperCase(c);
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private int search(CharSequence text, int from, Matches matches) {
+
+        int length = folded.length;
+
+        if(length == 0) {
+
+            if(from > text.length()) return -1;
+            if(matches == null) return from;
+
+            for(int i=from; i<=text.length(); i++)
+                matches.add(i);
+
+            return from;
+
+        }
+
+        if(length < TWO_WAY_LENGTH)
+            return horspool(text, from, matches);
+
+        return periodic ? twoWayPeriodic(text, from, matches) : twoWay(text, from, matches);
+
+    }
+
+    private int horspool(CharSequence text, int from, Matches matches) {
+
+        char[] p = folded;
+        int last = p.length - 1;
+        int end = text.length() - p.length;
+        char lastChar = p[last];
+
+        for(int j=from; j<=end; ) {
+
+            char c = fold(text.charAt(j + last), ignoreCase);
+
+            if(c == lastChar) {
+
+                int i = last - 1;
+                while(i >= 0 && p[i] == fold(text.charAt(j + i), ignoreCase))
+                    i--;
+
+                if(i < 0) {
+                    if(matches == null) return j;
+                    matches.add(j);
+                }
+
+            }
+
+            j += shifts[c & (TABLE_SIZE - 1)];
+
+        }
+
+        return -1;
+
+    }
+
+    private int twoWayPeriodic(CharSequence text, int from, Matches matches) {
+
+        char[] p = folded;
+        int length = p.length;
+        int last = length - 1;
+        int end = text.length() - length;
+        int memory = 0;
+
+        for(int j=from; j<=end; ) {
+
+            char c = fold(text.charAt(j + last), ignoreCase);
+
+            if(c != p[last]) {
+
+                int shift = shifts[c & (TABLE_SIZE - 1)];
+
+                //the pattern is periodic, no match can start before the mismatched period
+                if(memory > 0 && shift < period) shift = length - period;
+
+                memory = 0;
+                j += shift;
+                continue;
+
+            }
+
+            int i = Math.max(suffix, memory);
+            while(i < last && p[i] == fold(text.charAt(j + i), ignoreCase))
+                i++;
+
+            if(i >= last) {
+
+                i = suffix - 1;
+                while(i >= memory && p[i] == fold(text.charAt(j + i), ignoreCase))
+                    i--;
+
+                if(i < memory) {
+                    if(matches == null) return j;
+                    matches.add(j);
+                }
+
+                j += period;
+                memory = length - period;
+
+            } else {
+
+                j += i - suffix + 1;
+                memory = 0;
+
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    private int twoWay(CharSequence text, int from, Matches matches) {
+
+        char[] p = folded;
+        int length = p.length;
+        int last = length - 1;
+        int end = text.length() - length;
+
+        for(int j=from; j<=end; ) {
+
+            char c = fold(text.charAt(j + last), ignoreCase);
+            if(c != p[last]) {
+                j += shifts[c & (TABLE_SIZE - 1)];
+                continue;
+            }
+
+            int i = suffix;
+            while(i < last && p[i] == fold(text.charAt(j + i), ignoreCase))
+                i++;
+
+            if(i >= last) {
+
+                i = suffix - 1;
+                while(i >= 0 && p[i] == fold(text.charAt(j + i), ignoreCase))
+                    i--;
+
+                if(i < 0) {
+                    if(matches == null) return j;
+                    matches.add(j);
+                }
+
+                j += period;
+
+            } else {
+                j += i - suffix + 1;
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    private static int naiveIndexOf(CharSequence text, CharSequence pattern, int from, boolean ignoreCase) {
+
+        int patternLength = pattern.length();
+        int end = text.length() - patternLength;
+        char first = fold(pattern.charAt(0), ignoreCase);
+
+        for(int j=from; j<=end; j++) {
+
+            if(fold(text.charAt(j), ignoreCase) != first) continue;
+
+            int i = 1;
+            while(i < patternLength && fold(text.charAt(j + i), ignoreCase) == fold(pattern.charAt(i), ignoreCase))
+                i++;
+
+            if(i == patternLength) return j;
+
+        }
+
+        return -1;
+
+    }
+
+    private static boolean regionEquals(char[] p, int left, int right, int length) {
+
+        for(int i=0; i<length; i++) {
+            if(p[left + i] != p[right + i])
+                return false;
+        }
+
+        return true;
+
+    }
+
+    //returns the start of the right half of the critical factorization and its period
+    private static int[] criticalFactorization(char[] p) {
+
+        int[] forward = maximalSuffix(p, false);
+        int[] reverse = maximalSuffix(p, true);
+
+        return forward[0] > reverse[0] ? new int[] { forward[0] + 1, forward[1] } :
+            new int[] { reverse[0] + 1, reverse[1] };
+
+    }
+
+    private static int[] maximalSuffix(char[] p, boolean reverse) {
+
+        int maxSuffix = -1, j = 0, k = 1, period = 1;
+
+        while(j + k < p.length) {
+
+            char a = p[j + k];
+            char b = p[maxSuffix + k];
+
+            if(reverse ? b < a : a < b) {
+
+                j += k;
+                k = 1;
+                period = j - maxSuffix;
+
+            } else if(a == b) {
+
+                if(k != period) {
+                    k++;
+                } else {
+                    j += period;
+                    k = 1;
+                }
+
+            } else {
+
+                maxSuffix = j++;
+                k = period = 1;
+
+            }
+
+        }
+
+        return new int[] { maxSuffix, period };
+
+    }
+
+    private static final class Matches {
+
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(int index) {
+
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+
+            values[size++] = index;
+
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
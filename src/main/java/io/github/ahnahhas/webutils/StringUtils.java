@@ -1,8 +1,8 @@
 package io.github.ahnahhas.webutils;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -21,6 +21,21 @@ public class StringUtils {
     //empty string
     private static final String EMPTY_STRING = "";
 
+    //upper case of Latin-1 chars, some of them are upper cased out of Latin-1
+    private static final char[] LATIN1_UPPER_CASE = new char[256];
+
+    //whitespaces of Latin-1 according to Character.isWhitespace
+    private static final boolean[] LATIN1_WHITESPACE = new boolean[256];
+
+    static {
+
+        for(char c=0; c<LATIN1_UPPER_CASE.length; c++) {
+            LATIN1_UPPER_CASE[c] = Character.toUpperCase(c);
+            LATIN1_WHITESPACE[c] = Character.isWhitespace(c);
+        }
+
+    }
+
     /**
      * Returns the length of a {@link java.lang.CharSequence}. A null reference is 
      * considered to have a length equal to 0.
@@ -63,8 +78,13 @@ public class StringUtils {
      */
     public static boolean isBlank(CharSequence str) {
 
-        if(length(str) == 0) return true;
-        return str.chars().allMatch(Character::isWhitespace);
+        long start = MetricsRecorder.start();
+
+        try {
+            return blank(str);
+        } finally {
+            MetricsRecorder.record("StringUtils.isBlank", start, str);
+        }
 
     }
 
@@ -106,6 +126,7 @@ public class StringUtils {
     /**
      * Compares lexicographically and case-insensitively two {@link java.lang.CharSequence} references. 
      * If one CharSequence contains the other, then the length is compared using the natural order.
+     * Chars are compared upper cased, supplementary characters by their upper cased code point.
      * <p>
      * If left is case-insensitively, lexicographically greater than right, a positive number is returned.
      * If right is case-insensitively, lexicographically greater than left, a negative number is returned.
@@ -117,28 +138,25 @@ public class StringUtils {
      */
     public static int compareIgnoreCase(CharSequence left, CharSequence right) {
 
-        if(left == right) return 0;
-        if(right == null) return 1;
-        if(left == null) return -1;
+        long start = MetricsRecorder.start();
 
-        int leftLen = length(left);
-        int rightLen = length(right);
+        try {
 
-        for(int i=0; i<leftLen; i++) {
+            if(left == right) return 0;
+            if(right == null) return 1;
+            if(left == null) return -1;
 
-            if(i>=rightLen)
-                break;
+            int leftLen = left.length();
+            int rightLen = right.length();
 
-            Character leftChar = Character.toUpperCase(left.charAt(i));
-            Character rightChar = Character.toUpperCase(right.charAt(i));
-            int result = leftChar.compareTo(rightChar);
-            
-            if(result != 0)
-                return result;
+            int result = compareIgnoreCase(left, right, Math.min(leftLen, rightLen));
+            if(result != 0) return result;
 
-        }
+            return Integer.compare(leftLen, rightLen);
 
-        return Integer.valueOf(leftLen).compareTo(rightLen);
+        } finally {
+            MetricsRecorder.record("StringUtils.compareIgnoreCase", start, left);
+        }
 
     }
 
@@ -163,7 +181,23 @@ public class StringUtils {
      * @return      boolean containing the result of verification
      */
     public static boolean equalsIgnoreCase(CharSequence left, CharSequence right) {
-        return compareIgnoreCase(left, right) == 0;
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(left == right) return true;
+            if(left == null || right == null) return false;
+
+            int length = left.length();
+            if(length != right.length()) return false;
+
+            return compareIgnoreCase(left, right, length) == 0;
+
+        } finally {
+            MetricsRecorder.record("StringUtils.equalsIgnoreCase", start, left);
+        }
+
     }
 
     /**
@@ -183,7 +217,8 @@ public class StringUtils {
 
     /**
      * Verifies if a {@link java.lang.CharSequence} lexicographically contains a another CharSequence.
-     * If at least one CharSequece is null then false is returned.
+     * If at least one CharSequece is null then false is returned. Searching the same CharSequence 
+     * repeatedly is faster with {@link #compileSearcher(java.lang.CharSequence, boolean)}.
      * 
      * @param str      CharSequence to verify
      * @param searched CharSequence to search for
@@ -195,7 +230,8 @@ public class StringUtils {
 
     /**
      * Verifies if a {@link java.lang.CharSequence} case-insensitively lexicographically contains a another CharSequence.
-     * If at least one CharSequece is null then false is returned.
+     * If at least one CharSequece is null then false is returned. Searching the same CharSequence 
+     * repeatedly is faster with {@link #compileSearcher(java.lang.CharSequence, boolean)}.
      * 
      * @param str      CharSequence to verify
      * @param searched CharSequence to search for
@@ -205,6 +241,93 @@ public class StringUtils {
         return contains(str, searched, true);
     }
 
+    /**
+     * Returns the index of the first occurrence of a {@link java.lang.CharSequence} in another one.
+     * If at least one CharSequence is null or searched is not found, then -1 is returned. Searching 
+     * the same CharSequence repeatedly is faster with {@link #compileSearcher(java.lang.CharSequence, boolean)}.
+     * 
+     * @param str      CharSequence to search in
+     * @param searched CharSequence to search for
+     * @return         Index of the first occurrence, or -1
+     */
+    public static int indexOf(CharSequence str, CharSequence searched) {
+        return indexOf(str, searched, false);
+    }
+
+    /**
+     * Returns the index of the first case-insensitive occurrence of a {@link java.lang.CharSequence} in 
+     * another one. If at least one CharSequence is null or searched is not found, then -1 is returned. 
+     * Searching the same CharSequence repeatedly is faster with {@link #compileSearcher(java.lang.CharSequence, boolean)}.
+     * 
+     * @param str      CharSequence to search in
+     * @param searched CharSequence to search for
+     * @return         Index of the first occurrence, or -1
+     */
+    public static int indexOfIgnoreCase(CharSequence str, CharSequence searched) {
+        return indexOf(str, searched, true);
+    }
+
+    /**
+     * Returns the indexes of every occurrence of a {@link java.lang.CharSequence} in another one, 
+     * overlapping occurrences included. If at least one CharSequence is null or searched is not found, 
+     * then an empty array is returned.
+     * 
+     * @param str      CharSequence to search in
+     * @param searched CharSequence to search for
+     * @return         Indexes of every occurrence
+     */
+    public static int[] indexesOf(CharSequence str, CharSequence searched) {
+        return indexesOf(str, searched, false);
+    }
+
+    /**
+     * Returns the indexes of every case-insensitive occurrence of a {@link java.lang.CharSequence} in 
+     * another one, overlapping occurrences included. If at least one CharSequence is null or searched 
+     * is not found, then an empty array is returned.
+     * 
+     * @param str      CharSequence to search in
+     * @param searched CharSequence to search for
+     * @return         Indexes of every occurrence
+     */
+    public static int[] indexesOfIgnoreCase(CharSequence str, CharSequence searched) {
+        return indexesOf(str, searched, true);
+    }
+
+    /**
+     * Compiles a {@link java.lang.CharSequence} into a {@link StringSearcher}, searching it in 
+     * linear time without recompiling it for each searched CharSequence. The returned StringSearcher 
+     * is immutable and thread-safe.
+     * 
+     * @param pattern    CharSequence to search for
+     * @param ignoreCase Boolean to search case-insensitively
+     * @return           StringSearcher of pattern
+     */
+    public static StringSearcher compileSearcher(CharSequence pattern, boolean ignoreCase) {
+
+        Objects.requireNonNull(pattern);
+        return new StringSearcher(pattern, ignoreCase);
+
+    }
+
+    /**
+     * Compiles {@link java.lang.CharSequence} patterns into a {@link MultiStringMatcher}, searching 
+     * every pattern in a single pass over the searched CharSequence, instead of one pass per pattern 
+     * with {@link #contains(java.lang.CharSequence, java.lang.CharSequence)}. The returned 
+     * MultiStringMatcher is immutable and thread-safe.
+     * 
+     * @param patterns   CharSequence references to search for
+     * @param ignoreCase Boolean to search case-insensitively
+     * @return           MultiStringMatcher of patterns
+     * @throws IllegalArgumentException if a pattern is empty
+     */
+    public static MultiStringMatcher compileMatcher(Collection<? extends CharSequence> patterns, boolean ignoreCase) 
+        throws IllegalArgumentException {
+
+        Objects.requireNonNull(patterns);
+        return new MultiStringMatcher(patterns, ignoreCase);
+
+    }
+
     /**
      * Leftpads a {@link java.lang.String} with a number of blank characters.
      * If size is negative or equal to zero then str is returned.
@@ -238,7 +361,15 @@ public class StringUtils {
      * @return         Concatenated String
      */
     public static String concat(CharSequence... elements) {
-        return joinFiltered(EMPTY_STRING, Objects::nonNull, elements);
+
+        long start = MetricsRecorder.start();
+
+        try {
+            return joinOf(EMPTY_STRING, Objects::nonNull, elements);
+        } finally {
+            MetricsRecorder.record("StringUtils.concat", start, elements);
+        }
+
     }
 
     /**
@@ -252,7 +383,15 @@ public class StringUtils {
      * @return          Joined String
      */
     public static String join(String delimiter, CharSequence... elements) {
-        return joinFiltered(delimiter, Objects::nonNull, elements);
+
+        long start = MetricsRecorder.start();
+
+        try {
+            return joinOf(delimiter, Objects::nonNull, elements);
+        } finally {
+            MetricsRecorder.record("StringUtils.join", start, elements);
+        }
+
     }
 
     /**
@@ -264,7 +403,15 @@ public class StringUtils {
      * @return         Concatenated String
      */
     public static String concatIgnoreBlank(CharSequence... elements) {
-        return joinFiltered(EMPTY_STRING, StringUtils::isNotBlank, elements);
+
+        long start = MetricsRecorder.start();
+
+        try {
+            return joinOf(EMPTY_STRING, str -> !blank(str), elements);
+        } finally {
+            MetricsRecorder.record("StringUtils.concatIgnoreBlank", start, elements);
+        }
+
     }
 
     /**
@@ -278,7 +425,15 @@ public class StringUtils {
      * @return          Joined String
      */
     public static String joinIgnoreBlank(String delimiter, CharSequence... elements) {
-        return joinFiltered(delimiter, StringUtils::isNotBlank, elements);
+
+        long start = MetricsRecorder.start();
+
+        try {
+            return joinOf(delimiter, str -> !blank(str), elements);
+        } finally {
+            MetricsRecorder.record("StringUtils.joinIgnoreBlank", start, elements);
+        }
+
     }
 
     /**
@@ -294,79 +449,208 @@ public class StringUtils {
      */
     public static String joinFiltered(String delimiter, Predicate<? super CharSequence> filter, 
         CharSequence... elements) {
-        
+
+        long start = MetricsRecorder.start();
+
+        try {
+            return joinOf(delimiter, filter, elements);
+        } finally {
+            MetricsRecorder.record("StringUtils.joinFiltered", start, elements);
+        }
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    //not instrumented, every public join records its own operation
+    private static String joinOf(String delimiter, Predicate<? super CharSequence> filter, CharSequence[] elements) {
+
         if(elements == null || elements.length == 0)
             return null;
 
         return Arrays.asList(elements).stream()
             .filter(filter)
-            .collect(Collectors.joining(OptionalUtils.orDefault(
-                OptionalUtils.ofBlank(delimiter), () -> EMPTY_STRING)));
+            .collect(Collectors.joining(blank(delimiter) ? EMPTY_STRING : delimiter));
 
     }
 
-    /*************************** API PRIVATE METHODS ***************************/
+    //not instrumented, so operations checking blank CharSequence references record a single call
+    private static boolean blank(CharSequence str) {
+
+        if(str == null) return true;
+
+        int length = str.length();
+        if(length == 0) return true;
+
+        //most CharSequence references are not blank, and most of them start or end with a non whitespace
+        if(!isWhitespace(str.charAt(0)) || !isWhitespace(str.charAt(length - 1))) return false;
+
+        if(str instanceof String) return isBlank((String) str, length);
+        if(str instanceof StringBuilder) return isBlank((StringBuilder) str, length);
+
+        for(int i=1; i<length-1; i++) {
+            if(!isWhitespace(str.charAt(i)))
+                return false;
+        }
+
+        return true;
+
+    }
 
     private static String stringPad(String str, int size, PadDirection direction) {
 
-        if(str == null) return null;
-        if(size <= 0) return str;
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(str == null) return null;
+            if(size <= 0) return str;
+
+            StringBuilder padSb = new StringBuilder(size);
+            if(size > 0 || size < MAX_PAD_SIZE){
+
+                int i = 0;
+                do 
+                    padSb.append(" ");
+                while(++i < size);
 
-        StringBuilder padSb = new StringBuilder(size);
-        if(size > 0 || size < MAX_PAD_SIZE){
+            }
+
+            StringBuilder sb = new StringBuilder(str);
+            if(PadDirection.RIGHT.equals(direction))
+                sb.append(padSb);
+            else
+                sb.insert(0, padSb);
 
-            int i = 0;
-            do 
-                padSb.append(" ");
-            while(++i < size);
+            return sb.toString();
 
+        } finally {
+            MetricsRecorder.record(PadDirection.RIGHT.equals(direction) ? "StringUtils.rightPad" : "StringUtils.leftPad", start, str);
         }
-        
-        StringBuilder sb = new StringBuilder(str);
-        if(PadDirection.RIGHT.equals(direction))
-            sb.append(padSb);
-        else
-            sb.insert(0, padSb);
 
-        return sb.toString();
+    }
 
+    private static boolean isWhitespace(char c) {
+        return c < 256 ? LATIN1_WHITESPACE[c] : Character.isWhitespace(c);
     }
 
-    private static boolean contains(CharSequence str, CharSequence searched, final boolean ignoreCase) {
+    private static boolean isBlank(String str, int length) {
 
-        
-        if(str == null || searched == null) return false;
+        for(int i=1; i<length-1; i++) {
+            if(!isWhitespace(str.charAt(i)))
+                return false;
+        }
+
+        return true;
+
+    }
+
+    private static boolean isBlank(StringBuilder str, int length) {
+
+        for(int i=1; i<length-1; i++) {
+            if(!isWhitespace(str.charAt(i)))
+                return false;
+        }
+
+        return true;
+
+    }
 
-        int strLen = length(str);
-        int searchedLen = length(searched);
+    private static int compareIgnoreCase(CharSequence left, CharSequence right, int length) {
 
-        if(strLen == 0 && searchedLen == 0) return true;        
-        if(searchedLen == 0) return true;
-        
-        if(strLen < searchedLen) return false;
+        for(int i=0; i<length; i++) {
 
-        BiPredicate<Character, Character> predicate = (one, two) -> ignoreCase ?
-            Character.toUpperCase(one) == Character.toUpperCase(two) : one == two;
+            char leftChar = left.charAt(i);
+            char rightChar = right.charAt(i);
+            if(leftChar == rightChar) continue;
 
-        for(int j=0; j<strLen; j++) {
+            char leftUpper = leftChar < 256 ? LATIN1_UPPER_CASE[leftChar] : Character.toUpperCase(leftChar);
+            char rightUpper = rightChar < 256 ? LATIN1_UPPER_CASE[rightChar] : Character.toUpperCase(rightChar);
+            if(leftUpper == rightUpper) continue;
 
-            if(strLen - j < searchedLen)
-                break;
-            
-            int i=0, cursor = j, matchLen = 0;
-            while(i < searchedLen && cursor < strLen && 
-                predicate.test(str.charAt(cursor), searched.charAt(i))) {
+            //supplementary letters differing only by case are equal, other surrogates keep the char order
+            if(Character.isSurrogate(leftChar) && Character.isSurrogate(rightChar)
+                && equalsSupplementaryIgnoreCase(left, right, i)) {
 
-                i++; cursor++; matchLen++;
+                i = Character.isHighSurrogate(leftChar) ? i + 1 : i;
+                continue;
 
             }
 
-            if(matchLen == searchedLen) return true;
-                
+            return leftUpper - rightUpper;
+
+        }
+
+        return 0;
+
+    }
+
+    //verifies if the chars at index belong to supplementary code points equal once upper cased
+    private static boolean equalsSupplementaryIgnoreCase(CharSequence left, CharSequence right, int index) {
+
+        int start = Character.isLowSurrogate(left.charAt(index)) && index > 0 
+            && Character.isHighSurrogate(left.charAt(index - 1)) ? index - 1 : index;
+
+        int leftCodePoint = Character.codePointAt(left, start);
+        int rightCodePoint = Character.codePointAt(right, start);
+
+        return Character.isSupplementaryCodePoint(leftCodePoint) && Character.isSupplementaryCodePoint(rightCodePoint)
+            && Character.toUpperCase(leftCodePoint) == Character.toUpperCase(rightCodePoint);
+
+    }
+
+    private static int indexOf(CharSequence str, CharSequence searched, boolean ignoreCase) {
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(str == null || searched == null) return -1;
+            return StringSearcher.indexOf(str, searched, 0, ignoreCase);
+
+        } finally {
+            MetricsRecorder.record(ignoreCase ? "StringUtils.indexOfIgnoreCase" : "StringUtils.indexOf", start, str);
+        }
+
+    }
+
+    private static int[] indexesOf(CharSequence str, CharSequence searched, boolean ignoreCase) {
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(str == null || searched == null) return new int[0];
+            return new StringSearcher(searched, ignoreCase).indexesOf(str);
+
+        } finally {
+            MetricsRecorder.record(ignoreCase ? "StringUtils.indexesOfIgnoreCase" : "StringUtils.indexesOf", start, str);
+        }
+
+    }
+
+    private static boolean contains(CharSequence str, CharSequence searched, final boolean ignoreCase) {
+
+        long start = MetricsRecorder.start();
+
+        try {
+
+            if(str == null || searched == null) return false;
+
+            int strLen = length(str);
+            int searchedLen = length(searched);
+
+            if(strLen == 0 && searchedLen == 0) return true;        
+            if(searchedLen == 0) return true;
+
+            if(strLen < searchedLen) return false;
+
+            return StringSearcher.indexOf(str, searched, 0, ignoreCase) >= 0;
+
+        } finally {
+            MetricsRecorder.record(ignoreCase ? "StringUtils.containsIgnoreCase" : "StringUtils.contains", start, str);
         }
 
-        return false;
-        
     }
 
 }
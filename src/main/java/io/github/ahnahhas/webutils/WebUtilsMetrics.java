@@ -0,0 +1,45 @@
+package io.github.ahnahhas.webutils;
+
+/**
+ * Instrumentation SPI receiving a record per call of the instrumented {@link CollectionUtils} and
+ * {@link StringUtils} operations. The implementation is installed once, when the library is loaded:
+ * the class named by the {@value #PROPERTY} system property is instantiated if set, or else the first
+ * implementation found by {@link java.util.ServiceLoader} is used. When no implementation is installed,
+ * the {@link #NOOP} implementation is used and the instrumentation is removed by the JIT compiler.
+ * A default in-process implementation is provided by {@link InProcessMetrics}.
+ * @author Ahmed Amin Nahhas
+ */
+@FunctionalInterface
+public interface WebUtilsMetrics {
+
+    /**
+     * System property naming the {@link WebUtilsMetrics} implementation to install.
+     */
+    String PROPERTY = "webutils.metrics";
+
+    /**
+     * Implementation ignoring every record, installed when metrics are disabled.
+     */
+    WebUtilsMetrics NOOP = (operation, inputSize, durationNanos) -> {};
+
+    /**
+     * Records a call of an operation. Implementations must be thread-safe and should
+     * not block, since they are called on the caller thread.
+     * 
+     * @param operation     Name of the operation, such as {@code CollectionUtils.distinct}
+     * @param inputSize     Size of the input, number of elements or characters
+     * @param durationNanos Duration of the call in nanoseconds
+     */
+    void record(String operation, long inputSize, long durationNanos);
+
+    /**
+     * Returns the installed {@link WebUtilsMetrics} implementation, or {@link #NOOP}
+     * if metrics are disabled.
+     * 
+     * @return Installed implementation
+     */
+    static WebUtilsMetrics installed() {
+        return MetricsRecorder.METRICS;
+    }
+
+}
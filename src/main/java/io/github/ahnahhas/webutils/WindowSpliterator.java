@@ -0,0 +1,318 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link java.util.Spliterator} of windows of size elements, starting every step elements, over a
+ * source Spliterator. Batches have a step equal to their size and keep the last incomplete window,
+ * sliding windows only emit complete windows. Elements are read once into chunk arrays, and windows
+ * are unmodifiable views over those chunks, so overlapping windows share their elements instead of
+ * copying them. Chunks are never overwritten, so windows stay valid after the traversal moves on.
+ * <p>
+ * When the source reports its exact size, splitting aligns on window boundaries: the prefix borrows
+ * the first elements of the suffix needed by its last window, and the suffix skips the elements
+ * before its first window.
+ * @author Ahmed Amin Nahhas
+ */
+final class WindowSpliterator<T> implements Spliterator<List<T>> {
+
+    //default largest chunk, in elements, unless a window is larger
+    private static final int MAX_CHUNK = 4096;
+
+    //first chunk, in elements, unless a window is smaller
+    private static final int MIN_CHUNK = 16;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final int size;
+    private final int step;
+    private final boolean partial;
+
+    //elements read before the source, then the source, then elements read after it
+    private Object[] head;
+    private int headIndex;
+    private Spliterator<? extends T> source;
+    private Object[] tail;
+    private int tailIndex;
+
+    //position of the next element read, start of the next window, start of the last window
+    private long position;
+    private long nextStart;
+    private long maxStart;
+
+    private Object[] chunk;
+    private long chunkStart;
+    private int chunkSize;
+
+    private Object current;
+    private final Consumer<T> reader = element -> current = element;
+
+    /**
+     * Returns a Spliterator of windows over source.
+     *
+     * @param source  Spliterator of elements
+     * @param size    Number of elements in a window
+     * @param step    Number of elements between the starts of two windows
+     * @param partial Boolean to emit the last window if it is incomplete
+     */
+    WindowSpliterator(Spliterator<? extends T> source, int size, int step, boolean partial) {
+        this(EMPTY, source, EMPTY, 0L, 0L, Long.MAX_VALUE, size, step, partial);
+    }
+
+    private WindowSpliterator(Object[] head, Spliterator<? extends T> source, Object[] tail, long position,
+        long nextStart, long maxStart, int size, int step, boolean partial) {
+
+        this.head = head;
+        this.source = source;
+        this.tail = tail;
+        this.position = position;
+        this.nextStart = nextStart;
+        this.maxStart = maxStart;
+        this.size = size;
+        this.step = step;
+        this.partial = partial;
+
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+
+        if(nextStart > maxStart) return false;
+
+        long end = nextStart + size;
+        while(chunkStart + chunkSize < end && readNext())
+            if(position - 1 >= nextStart)
+                append(current, position - 1);
+
+        current = null;
+        int available = (int) Math.max(0, chunkStart + chunkSize - nextStart);
+
+        if(available < size && !(partial && available > 0)) {
+            nextStart = Long.MAX_VALUE;
+            return false;
+        }
+
+        action.accept(new Window<>(chunk, (int) (nextStart - chunkStart), Math.min(size, available)));
+        nextStart = available < size ? Long.MAX_VALUE : nextStart + step;
+        return true;
+
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+
+        //only fresh spliterators over exactly sized sources split on window boundaries
+        if(chunk != null || source == null || !source.hasCharacteristics(Spliterator.SIZED))
+            return null;
+
+        Spliterator<? extends T> prefix = source.trySplit();
+        if(prefix == null) return null;
+
+        long prefixSize = prefix.getExactSizeIfKnown();
+        long boundary = position + (head.length - headIndex) + prefixSize;
+
+        if(prefixSize < 0 || nextStart >= boundary || maxStart < boundary) {
+
+            //cannot align, keep traversing the prefix first
+            source = new ConcatSpliterator<>(prefix, source);
+            return null;
+
+        }
+
+        long lastStart = nextStart + (boundary - 1 - nextStart) / step * step;
+        int borrowed = (int) Math.max(0, lastStart + size - boundary);
+
+        long start = position;
+        Object[] taken = new Object[borrowed];
+        int count = 0;
+        while(count < borrowed && readAfterHead())
+            taken[count++] = current;
+
+        current = null;
+        if(count < borrowed)
+            taken = Arrays.copyOf(taken, count);
+
+        WindowSpliterator<T> split = new WindowSpliterator<>(head, prefix, taken, start, nextStart, lastStart,
+            size, step, partial);
+        split.headIndex = headIndex;
+
+        //elements borrowed by the prefix are read again by this suffix
+        head = taken;
+        headIndex = 0;
+        position = boundary;
+        nextStart = lastStart + step;
+
+        return split;
+
+    }
+
+    @Override
+    public long estimateSize() {
+
+        long remaining = (head.length - headIndex) + (tail.length - tailIndex);
+        long sourceSize = source == null ? 0 : source.estimateSize();
+        if(sourceSize == Long.MAX_VALUE) return Long.MAX_VALUE;
+
+        long last = Math.min(maxStart, position + remaining + sourceSize - 1);
+        long first = Math.max(nextStart, chunk == null ? position : chunkStart);
+
+        return last < first ? 0 : (last - first) / step + 1;
+
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private boolean readNext() {
+
+        if(headIndex < head.length) {
+
+            current = head[headIndex++];
+            position++;
+            return true;
+
+        }
+
+        return readAfterHead();
+
+    }
+
+    private boolean readAfterHead() {
+
+        if(source != null) {
+
+            if(source.tryAdvance(reader)) {
+                position++;
+                return true;
+            }
+
+            source = null;
+
+        }
+
+        if(tailIndex < tail.length) {
+
+            current = tail[tailIndex++];
+            position++;
+            return true;
+
+        }
+
+        return false;
+
+    }
+
+    private void append(Object element, long index) {
+
+        if(chunk == null || index != chunkStart + chunkSize) {
+
+            //first element, or elements were skipped between windows
+            chunk = new Object[Math.min(size, MIN_CHUNK)];
+            chunkStart = index;
+            chunkSize = 0;
+
+        } else if(chunkSize == chunk.length) {
+
+            //keeps the elements of the next window only, earlier windows keep the previous chunk
+            int retained = (int) Math.max(0, chunkStart + chunkSize - nextStart);
+            int capacity = Math.max(Math.max(size, retained + 1), Math.min(MAX_CHUNK, chunk.length * 2));
+
+            Object[] next = new Object[capacity];
+            System.arraycopy(chunk, chunkSize - retained, next, 0, retained);
+
+            chunk = next;
+            chunkStart = chunkStart + chunkSize - retained;
+            chunkSize = retained;
+
+        }
+
+        chunk[chunkSize++] = element;
+
+    }
+
+    private static final class Window<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] array;
+        private final int offset;
+        private final int size;
+
+        private Window(Object[] array, int offset, int size) {
+
+            this.array = array;
+            this.offset = offset;
+            this.size = size;
+
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+
+            if(index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+
+            return (T) array[offset + index];
+
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private static final class ConcatSpliterator<T> implements Spliterator<T> {
+
+        private Spliterator<? extends T> first;
+        private final Spliterator<? extends T> second;
+
+        private ConcatSpliterator(Spliterator<? extends T> first, Spliterator<? extends T> second) {
+
+            this.first = first;
+            this.second = second;
+
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+
+            if(first != null) {
+                if(first.tryAdvance(action)) return true;
+                first = null;
+            }
+
+            return second.tryAdvance(action);
+
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+
+            long size = (first == null ? 0 : first.estimateSize()) + second.estimateSize();
+            return size < 0 ? Long.MAX_VALUE : size;
+
+        }
+
+        @Override
+        public int characteristics() {
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.github.ahnahhas.webutils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory of the {@link java.util.concurrent.ExecutorService} used by the concurrent
+ * utility methods. This Java 21 implementation runs every task on its own virtual thread,
+ * the concurrency cap being enforced by the caller.
+ * @author Ahmed Amin Nahhas
+ */
+final class ConcurrentExecutors {
+
+    //thread name prefix
+    private static final String THREAD_PREFIX = "webutils-concurrent-";
+
+    private ConcurrentExecutors() {}
+
+    /**
+     * Returns a new {@link java.util.concurrent.ExecutorService} starting a virtual
+     * thread per task. The parallelism is ignored since virtual threads are cheap,
+     * callers limit the number of submitted tasks instead.
+     *
+     * @param parallelism Maximum number of tasks running at the same time
+     * @return            New ExecutorService
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_PREFIX, 0).factory());
+    }
+
+}
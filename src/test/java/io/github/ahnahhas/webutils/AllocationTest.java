@@ -0,0 +1,141 @@
+package io.github.ahnahhas.webutils;
+
+import static io.github.ahnahhas.webutils.helpers.AllocationHelpers.allocatedBytesPerCall;
+import static io.github.ahnahhas.webutils.helpers.AllocationHelpers.isAllocationMeasurable;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.ahnahhas.webutils.helpers.TestHelpers;
+
+public class AllocationTest {
+
+    private static final String VALUE = "value";
+    private static final Supplier<String> SUPPLIER = () -> VALUE;
+    private static final Function<String, Integer> MAPPER = String::length;
+    private static final Predicate<String> PREDICATE = s -> !s.isEmpty();
+    private static final BinaryOperator<String> COMBINER = (a, b) -> a;
+    private static final Optional<String> LEFT = Optional.of("left");
+    private static final Optional<String> RIGHT = Optional.of("right");
+    private static final List<String> LIST = TestHelpers.getListOfString("One", "Two", "Three");
+    private static final List<String> EMPTY_LIST = new ArrayList<>();
+    private static final StringBuilder BUILDER = new StringBuilder("  \u2003 ");
+    private static final String TEXT = "text/html;q=0.9, ".repeat(10) + "application/json";
+
+    //sink preventing the measured calls from being optimized away
+    private static volatile Object sink;
+
+    @Before
+    public void shouldMeasureAllocations() {
+        assumeTrue(isAllocationMeasurable());
+    }
+
+    @Test
+    public void shouldNotAllocateOnOrDefault() {
+        assertBudget(0, () -> sink = OptionalUtils.orDefault(VALUE, SUPPLIER));
+        assertBudget(0, () -> sink = OptionalUtils.orDefault(null, SUPPLIER));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOrThrow() {
+        assertBudget(0, () -> sink = OptionalUtils.orThrow(VALUE));
+        assertBudget(0, () -> sink = OptionalUtils.orThrow(VALUE, IllegalStateException::new));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOfMappable() {
+        assertBudget(0, () -> sink = OptionalUtils.ofMappable(VALUE, MAPPER));
+        assertBudget(0, () -> sink = OptionalUtils.ofMappable(null, MAPPER));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOfTruthy() {
+        assertBudget(0, () -> sink = OptionalUtils.ofTruthy(VALUE, true));
+        assertBudget(0, () -> sink = OptionalUtils.ofTruthy(VALUE, PREDICATE));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOfSupplied() {
+        assertBudget(0, () -> sink = OptionalUtils.ofSupplied(SUPPLIER, false));
+        assertBudget(0, () -> sink = OptionalUtils.ofSupplied(SUPPLIER, PREDICATE));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOptionalMerge() {
+        assertBudget(0, () -> sink = OptionalUtils.merge(LEFT, RIGHT, COMBINER));
+        assertBudget(0, () -> sink = OptionalUtils.merge(LEFT, Optional.<String>empty(), COMBINER));
+    }
+
+    @Test
+    public void shouldNotAllocateOnEmptinessCheck() {
+        assertBudget(0, () -> sink = CollectionUtils.isEmpty(LIST));
+        assertBudget(0, () -> sink = CollectionUtils.isNotEmpty(EMPTY_LIST));
+    }
+
+    @Test
+    public void shouldNotAllocateOnAnyElement() {
+        assertBudget(0, () -> sink = CollectionUtils.anyElement(LIST));
+        assertBudget(0, () -> sink = CollectionUtils.anyElement(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void shouldNotAllocateOnFirstElement() {
+        assertBudget(0, () -> sink = CollectionUtils.firstElement(LIST));
+        assertBudget(0, () -> sink = CollectionUtils.firstElement(EMPTY_LIST));
+    }
+
+    @Test
+    public void shouldNotAllocateOnCompareIgnoreCase() {
+        assertBudget(0, () -> sink = StringUtils.compareIgnoreCase("Content-Type", "content-type"));
+        assertBudget(0, () -> sink = StringUtils.compareIgnoreCase("Content-Type", "content-length"));
+    }
+
+    @Test
+    public void shouldNotAllocateOnEqualsIgnoreCase() {
+        assertBudget(0, () -> sink = StringUtils.equalsIgnoreCase("Content-Type", "CONTENT-TYPE"));
+        assertBudget(0, () -> sink = StringUtils.equalsIgnoreCase("Content-Type", "Accept"));
+    }
+
+    @Test
+    public void shouldNotAllocateOnIsBlank() {
+        assertBudget(0, () -> sink = StringUtils.isBlank(VALUE));
+        assertBudget(0, () -> sink = StringUtils.isBlank(" \t\n "));
+        assertBudget(0, () -> sink = StringUtils.isBlank(BUILDER));
+    }
+
+    @Test
+    public void shouldNotAllocateOnOfBlank() {
+        assertBudget(0, () -> sink = OptionalUtils.ofBlank(VALUE));
+        assertBudget(0, () -> sink = OptionalUtils.ofBlank("   "));
+    }
+
+    @Test
+    public void shouldNotAllocateOnContains() {
+        assertBudget(0, () -> sink = StringUtils.contains(TEXT, "application/json"));
+        assertBudget(0, () -> sink = StringUtils.containsIgnoreCase(TEXT, "APPLICATION/JSON"));
+        assertBudget(0, () -> sink = StringUtils.indexOf(BUILDER, "\u2003"));
+    }
+
+    private static void assertBudget(long budget, Runnable call) {
+
+        double allocated = allocatedBytesPerCall(call);
+
+        //less than one byte per call when no allocation is allowed, an object takes at least 16 bytes
+        assertTrue("Allocated " + allocated + " bytes per call, budget is " + budget,
+            allocated < budget + 1);
+
+    }
+
+}
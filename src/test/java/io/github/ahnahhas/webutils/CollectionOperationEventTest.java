@@ -0,0 +1,73 @@
+package io.github.ahnahhas.webutils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import io.github.ahnahhas.webutils.helpers.TestHelpers;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class CollectionOperationEventTest {
+
+    private static final String EVENT = "webutils.CollectionOperation";
+
+    @Test
+    public void shouldRecordCollectionOperationEvent() throws Exception {
+
+        List<String> listOne = TestHelpers.getListOfString("One", "Two", "Three");
+        List<String> listTwo = TestHelpers.getListOfString("Three", "Four");
+        List<RecordedEvent> events = record(() -> CollectionUtils.outerJoin(listOne, listTwo)).stream()
+            .filter(event -> "CollectionUtils.outerJoin".equals(event.getString("operation")))
+            .collect(Collectors.toList());
+
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getLong("inputSize"));
+        assertEquals(2, events.get(0).getLong("otherInputSize"));
+
+    }
+
+    @Test
+    public void shouldNotRecordFastCollectionOperation() throws Exception {
+
+        List<String> list = TestHelpers.getListOfString("One", "Two", "Three");
+        List<RecordedEvent> events = record(Duration.ofSeconds(10), () -> CollectionUtils.distinct(list));
+
+        assertEquals(0, events.size());
+
+    }
+
+    private static List<RecordedEvent> record(Runnable call) throws Exception {
+        return record(Duration.ZERO, call);
+    }
+
+    private static List<RecordedEvent> record(Duration threshold, Runnable call) throws Exception {
+
+        Path file = Files.createTempFile("webutils", ".jfr");
+
+        try(Recording recording = new Recording()) {
+
+            recording.enable(EVENT).withThreshold(threshold);
+            recording.start();
+            call.run();
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> EVENT.equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+}
@@ -15,6 +15,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
@@ -175,6 +177,18 @@ public class CollectionUtilsTest {
 
     }
 
+    @Test
+    public void shouldEstimateQuantilesOfCollection() {
+
+        List<Integer> latencies = IntStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList());
+        QuantileSketch sketch = CollectionUtils.quantiles(latencies, Integer::doubleValue, 100);
+
+        assertEquals(10_000, sketch.getCount());
+        assertEquals(9_900, sketch.getQuantile(0.99), 300);
+        assertEquals(0, CollectionUtils.quantiles(null, Integer::doubleValue).getCount());
+
+    }
+
     @Test
     public void shouldReturnDistinctStrings() {
 
@@ -254,6 +268,39 @@ public class CollectionUtilsTest {
 
     }
 
+    @Test
+    public void shouldMapCollectionStringsConcurrently() {
+
+        List<String> list = TestHelpers.getListOfString("One", "Two", "Three", "Four", "Five");
+        Collection<String> result = CollectionUtils.mapElementsConcurrent(list, String::toUpperCase, 2);
+        
+        assertEquals(Arrays.asList("ONE", "TWO", "THREE", "FOUR", "FIVE"), result);
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowExceptionForFailingConcurrentMapper() {
+
+        List<String> list = TestHelpers.getListOfString("One", "Two", "Three", "Four", "Five");
+        CollectionUtils.mapElementsConcurrent(list, s -> {
+            if(s.startsWith("T")) throw new IllegalStateException();
+            return s;
+        }, 3);
+
+    }
+
+    @Test
+    public void shouldFilterCollectionStringsConcurrently() {
+
+        List<String> list = TestHelpers.getListOfString("One", "Two", "Three", "Four", "Five");
+        Collection<String> result = CollectionUtils.filterConcurrent(list, 
+            getStartsWithPredicate("T"), 4);
+        
+        assertEquals(Arrays.asList("Two", "Three"), result);
+        assertTrue(CollectionUtils.filterConcurrent(null, getStartsWithPredicate("T"), 4).isEmpty());
+
+    }
+
     @Test
     public void shouldContainAllNumbers() {
 
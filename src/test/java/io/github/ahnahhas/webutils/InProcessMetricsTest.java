@@ -0,0 +1,133 @@
+package io.github.ahnahhas.webutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import io.github.ahnahhas.webutils.InProcessMetrics.OperationSnapshot;
+
+public class InProcessMetricsTest {
+
+    @Test
+    public void shouldDisableMetricsByDefault() {
+        assertSame(WebUtilsMetrics.NOOP, WebUtilsMetrics.installed());
+    }
+
+    @Test
+    public void shouldBucketValuesByPowerOfTwo() {
+
+        assertEquals(0, InProcessMetrics.bucketOf(0));
+        assertEquals(1, InProcessMetrics.bucketOf(1));
+        assertEquals(2, InProcessMetrics.bucketOf(3));
+        assertEquals(3, InProcessMetrics.bucketOf(4));
+        assertEquals(InProcessMetrics.BUCKETS - 1, InProcessMetrics.bucketOf(Long.MAX_VALUE));
+
+    }
+
+    @Test
+    public void shouldSnapshotRecordedOperations() {
+
+        InProcessMetrics metrics = new InProcessMetrics();
+        metrics.record("CollectionUtils.distinct", 10, 100);
+        metrics.record("CollectionUtils.distinct", 1000, 300);
+        metrics.record("StringUtils.isBlank", 0, 5);
+
+        Map<String, OperationSnapshot> snapshot = metrics.snapshot();
+        OperationSnapshot distinct = snapshot.get("CollectionUtils.distinct");
+
+        assertEquals(2, snapshot.size());
+        assertEquals(2, distinct.getCount());
+        assertEquals(400, distinct.getTotalNanos());
+        assertEquals(300, distinct.getMaxNanos());
+        assertEquals(200, distinct.getMeanNanos(), 0);
+        assertEquals(1, distinct.getSizeHistogram()[InProcessMetrics.bucketOf(10)]);
+        assertEquals(1, distinct.getSizeHistogram()[InProcessMetrics.bucketOf(1000)]);
+        assertEquals(1, snapshot.get("StringUtils.isBlank").getSizeHistogram()[0]);
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+
+    }
+
+    @Test
+    public void shouldCountConcurrentRecords() {
+
+        InProcessMetrics metrics = new InProcessMetrics();
+        IntStream.range(0, 10_000).parallel()
+            .forEach(i -> metrics.record("StringUtils.contains", i, 1));
+
+        assertEquals(10_000, metrics.snapshot().get("StringUtils.contains").getCount());
+
+    }
+
+    @Test
+    public void shouldRecordOnlyTheCalledOperation() throws Exception {
+
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+
+        try(IsolatedClassLoader loader = new IsolatedClassLoader()) {
+
+            //the ServiceLoader installs the provider of the test resource when the library is loaded
+            Thread.currentThread().setContextClassLoader(loader);
+
+            loader.loadClass(CollectionUtils.class.getName()).getMethod("distinct", Collection.class)
+                .invoke(null, List.of(3, 1, 3, 2));
+            loader.loadClass(StringUtils.class.getName()).getMethod("joinIgnoreBlank", String.class, CharSequence[].class)
+                .invoke(null, " ", new CharSequence[] { "a", " ", "b" });
+
+            Object metrics = loader.loadClass(WebUtilsMetrics.class.getName()).getMethod("installed").invoke(null);
+            Map<?, ?> snapshot = (Map<?, ?>) metrics.getClass().getMethod("snapshot").invoke(metrics);
+
+            assertEquals(InProcessMetrics.class.getName(), metrics.getClass().getName());
+            assertEquals(Set.of("CollectionUtils.distinct", "StringUtils.joinIgnoreBlank"), snapshot.keySet());
+
+            for(Object operation : snapshot.values())
+                assertEquals(1L, operation.getClass().getMethod("getCount").invoke(operation));
+
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+
+    }
+
+    //loads the library classes again, so they install metrics from the provider test resource
+    private static final class IsolatedClassLoader extends URLClassLoader {
+
+        private IsolatedClassLoader() {
+            super(new URL[] {
+                InProcessMetricsTest.class.getResource("/metrics-provider/"),
+                CollectionUtils.class.getProtectionDomain().getCodeSource().getLocation()
+            }, InProcessMetricsTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+            if(!name.startsWith(CollectionUtils.class.getPackageName() + "."))
+                return super.loadClass(name, resolve);
+
+            synchronized(getClassLoadingLock(name)) {
+
+                Class<?> loaded = findLoadedClass(name);
+                if(loaded == null) loaded = findClass(name);
+                if(resolve) resolveClass(loaded);
+
+                return loaded;
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.github.ahnahhas.webutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.ahnahhas.webutils.helpers.TestHelpers;
+
+public class IndexedCollectionsTest {
+
+    private static final Comparator<String> COMPARATOR = CollectionUtils.nullFirstComparator(
+        TestHelpers.getCaseInsensitiveComparator());
+
+    @Test
+    public void shouldRerouteAboveBudget() {
+        assertFalse(QuadraticGuard.reroute(QuadraticGuard.Mode.REROUTE, "CollectionUtils.distinct", 10, 10));
+        assertTrue(QuadraticGuard.reroute(QuadraticGuard.Mode.REROUTE, "CollectionUtils.distinct", 10_000, 10_000));
+        assertFalse(QuadraticGuard.reroute(QuadraticGuard.Mode.WARN, "CollectionUtils.distinct", 10_000, 10_000));
+    }
+
+    @Test
+    public void shouldOnlyRerouteWhenOptedIn() {
+
+        assertEquals(QuadraticGuard.Mode.WARN, QuadraticGuard.mode(null));
+        assertEquals(QuadraticGuard.Mode.WARN, QuadraticGuard.mode("rerout"));
+        assertEquals(QuadraticGuard.Mode.REROUTE, QuadraticGuard.mode(" Reroute "));
+        assertEquals(QuadraticGuard.Mode.OFF, QuadraticGuard.mode("off"));
+
+    }
+
+    @Test
+    public void shouldKeepEqualityComparatorSemanticsAboveBudget() {
+
+        //only tells equality apart, rerouting to sorted structures would break it
+        Comparator<Integer> equality = (a, b) -> a.equals(b) ? 0 : 1;
+        List<Integer> list = new ArrayList<>();
+        for(int i=0; i<1200; i++)
+            list.add(i % 600);
+
+        assertEquals(600, CollectionUtils.distinct(equality, list).size());
+
+    }
+
+    @Test
+    public void shouldMatchNestedLoopDistinct() {
+
+        List<String> list = randomList(300, 1);
+        assertEquals(CollectionUtils.distinct(COMPARATOR, list),
+            IndexedCollections.distinct(COMPARATOR, list, ArrayList::new));
+
+    }
+
+    @Test
+    public void shouldMatchNestedLoopOuterJoin() {
+
+        List<String> left = randomList(300, 2);
+        List<String> right = randomList(300, 3);
+        
+        assertEquals(CollectionUtils.outerJoin(COMPARATOR, left, right),
+            IndexedCollections.outerJoin(COMPARATOR, new ArrayList<>(), CollectionUtils.concat(left, right)));
+
+    }
+
+    @Test
+    public void shouldMatchNestedLoopContains() {
+
+        List<String> left = randomList(300, 4);
+        List<String> right = randomList(30, 5);
+        List<String> missing = TestHelpers.getListOfString("missing", "absent");
+
+        assertEquals(CollectionUtils.containsAny(COMPARATOR, left, right),
+            IndexedCollections.containsAny(COMPARATOR, left, right));
+        assertEquals(CollectionUtils.containsAny(COMPARATOR, left, missing),
+            IndexedCollections.containsAny(COMPARATOR, left, missing));
+        assertEquals(CollectionUtils.containsAll(COMPARATOR, left, right),
+            IndexedCollections.containsAll(COMPARATOR, left, right));
+        assertEquals(CollectionUtils.containsAll(COMPARATOR, left, left.subList(0, 10)),
+            IndexedCollections.containsAll(COMPARATOR, left, left.subList(0, 10)));
+
+    }
+
+    @Test
+    public void shouldMatchNestedLoopCompliance() {
+
+        List<String> reference = randomList(300, 6);
+        List<String> elements = randomList(100, 7);
+
+        assertEquals(CollectionUtils.compliant(COMPARATOR, reference, elements),
+            IndexedCollections.compliant(ArrayList::new, COMPARATOR, reference, elements, true));
+        assertEquals(CollectionUtils.nonCompliant(COMPARATOR, reference, elements),
+            IndexedCollections.compliant(ArrayList::new, COMPARATOR, reference, elements, false));
+
+    }
+
+    private static List<String> randomList(int size, long seed) {
+
+        Random random = new Random(seed);
+        List<String> list = new ArrayList<>(size);
+
+        for(int i=0; i<size; i++) {
+            int key = random.nextInt(size);
+            list.add(key == 0 ? null : (random.nextBoolean() ? "key" : "KEY") + key);
+        }
+
+        return list;
+
+    }
+
+}
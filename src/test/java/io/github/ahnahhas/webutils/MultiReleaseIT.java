@@ -0,0 +1,68 @@
+package io.github.ahnahhas.webutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs against the packaged multi-release jar, the only classpath selecting the Java 21 layer.
+ */
+public class MultiReleaseIT {
+
+    @Before
+    public void shouldRunOnJava21() {
+        assumeTrue(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    public void shouldMapOnVirtualThreadsWithinConcurrencyCap() throws NoSuchMethodException {
+
+        //Thread.isVirtual does not exist in the Java 11 API the tests are compiled against
+        Method isVirtual = Thread.class.getMethod("isVirtual");
+
+        Set<Object> virtual = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> list = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+
+        Collection<Integer> result = CollectionUtils.mapElementsConcurrent(list, i -> {
+
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+            try {
+
+                virtual.add(isVirtual.invoke(Thread.currentThread()));
+                Thread.sleep(5);
+
+            } catch(ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+
+            return i * 2;
+
+        }, 8);
+
+        assertEquals(list.stream().map(i -> i * 2).collect(Collectors.toList()), new ArrayList<>(result));
+        assertEquals(Set.of(true), virtual);
+        assertTrue("At most 8 mappings expected at once, was " + maxRunning.get(), maxRunning.get() <= 8);
+
+    }
+
+}
@@ -1,22 +1,55 @@
 package io.github.ahnahhas.webutils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import io.github.ahnahhas.webutils.helpers.TestHelpers;
 
 public class StreamUtilsTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void shouldReturnAnyElement() {
 
@@ -89,6 +122,463 @@ public class StreamUtilsTest {
         
     }
 
+    @Test
+    public void shouldSumWithoutIntOverflow() {
+
+        long sum = StreamUtils.sum(Stream.of(Integer.MAX_VALUE, Integer.MAX_VALUE), t -> t.intValue());
+        assertEquals(2L * Integer.MAX_VALUE, sum);
+
+    }
+
+    @Test
+    public void shouldComputeStatsInSinglePass() {
+
+        LongStatistics stats = StreamUtils.stats(IntStream.rangeClosed(1, 10_000).boxed().parallel(), t -> t.intValue());
+        assertEquals(10_000, stats.getCount());
+        assertEquals(50_005_000L, stats.getSum());
+        assertEquals(1, stats.getMin());
+        assertEquals(10_000, stats.getMax());
+        assertEquals(5000.5, stats.getMean(), 1e-9);
+        assertEquals((10_000.0 * 10_000 - 1) / 12, stats.getVariance(), 1e-6);
+
+        LongStatistics overflow = StreamUtils.stats(Stream.of(Long.MAX_VALUE, Long.MAX_VALUE), t -> t);
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1), overflow.getExactSum());
+        assertEquals(Long.MAX_VALUE, overflow.getMean(), 1);
+
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldThrowExceptionForOverflowingStatsSum() {
+        StreamUtils.stats(Stream.of(Long.MIN_VALUE, -1L), t -> t).getSum();
+    }
+
+    @Test
+    public void shouldComputeDoubleStatsInSinglePass() {
+
+        DoubleStatistics stats = StreamUtils.doubleStats(
+            IntStream.range(0, 10_000).mapToObj(i -> i % 2 == 0 ? 1e16 : 1.0).parallel(), t -> t);
+        assertEquals(10_000, stats.getCount());
+        assertEquals(5_000 * 1e16 + 5_000, stats.getSum(), 0);
+        assertEquals(1.0, stats.getMin(), 0);
+        assertEquals(1e16, stats.getMax(), 0);
+        assertEquals(0.25e32, stats.getVariance(), 1e20);
+
+    }
+
+    @Test
+    public void shouldEstimateQuantilesInBoundedMemory() {
+
+        int size = 500_000;
+        QuantileSketch sketch = StreamUtils.quantiles(
+            IntStream.range(0, size).map(i -> (int) ((i * 7919L) % size)).boxed().parallel(), t -> t);
+
+        assertEquals(size, sketch.getCount());
+        assertEquals(0, sketch.getQuantile(0), 0);
+        assertEquals(size - 1, sketch.getQuantile(1), 0);
+
+        double[] quantiles = sketch.getQuantiles(0.5, 0.95, 0.99);
+        assertEquals(0.50 * size, quantiles[0], 0.02 * size);
+        assertEquals(0.95 * size, quantiles[1], 0.02 * size);
+        assertEquals(0.99 * size, quantiles[2], 0.02 * size);
+        assertTrue(sketch.getRetained() < 4 * QuantileSketch.DEFAULT_K);
+
+    }
+
+    @Test
+    public void shouldBatchStream() {
+
+        List<List<Integer>> batches = StreamUtils.batch(Stream.of(1, 2, 3, 4, 5, 6, 7), 3)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7)), batches);
+
+    }
+
+    @Test
+    public void shouldSlideOverStream() {
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(3, 4, 5)), 
+            StreamUtils.sliding(Stream.of(1, 2, 3, 4, 5, 6), 3, 2).collect(Collectors.toList()));
+        assertEquals(List.of(List.of(1, 2), List.of(5, 6)), 
+            StreamUtils.sliding(Stream.of(1, 2, 3, 4, 5, 6, 7), 2, 4).collect(Collectors.toList()));
+        assertEquals(0, StreamUtils.sliding(Stream.of(1, 2), 3, 1).count());
+
+    }
+
+    @Test
+    public void shouldSplitWindowsOfSizedParallelStream() {
+
+        List<Integer> list = IntStream.range(0, 10_007).boxed().collect(Collectors.toList());
+
+        assertNotNull(StreamUtils.batch(list.parallelStream(), 100).spliterator().trySplit());
+
+        List<List<Integer>> batches = StreamUtils.batch(list.parallelStream(), 100).collect(Collectors.toList());
+        assertEquals(101, batches.size());
+        assertEquals(list, batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+
+        for(int step : new int[] {1, 7, 50, 130}) {
+
+            List<List<Integer>> windows = StreamUtils.sliding(list.parallelStream(), 50, step).collect(Collectors.toList());
+            List<List<Integer>> expected = new ArrayList<>();
+            for(int start = 0; start + 50 <= list.size(); start += step)
+                expected.add(list.subList(start, start + 50));
+
+            assertEquals(expected, windows);
+
+        }
+
+    }
+
+    @Test
+    public void shouldEvaluateParallelStreamOnGivenPool() {
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            List<Integer> list = StreamUtils.toList(IntStream.range(0, 10_000).boxed()
+                .peek(i -> threads.add(Thread.currentThread())), pool);
+
+            assertEquals(10_000, list.size());
+            assertTrue(threads.stream().allMatch(thread -> thread instanceof ForkJoinWorkerThread 
+                && ((ForkJoinWorkerThread) thread).getPool() == pool));
+            assertEquals(49_995_000L, StreamUtils.sum(IntStream.range(0, 10_000).boxed(), t -> t.intValue(), pool));
+            assertNotNull(StreamUtils.anyElement(Stream.of(1, 2, 3), pool));
+
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowExceptionFromGivenPool() {
+
+        StreamUtils.toList(IntStream.range(0, 1000).boxed().map(i -> {
+            if(i == 500) throw new IllegalStateException();
+            return i;
+        }), 2);
+
+    }
+
+    @Test
+    public void shouldMergeSortedStreamsLazily() {
+
+        List<Integer> pulled = new ArrayList<>();
+        Stream<Integer> merged = StreamUtils.mergeSorted(Comparator.naturalOrder(),
+            Stream.of(1, 4, 7).peek(pulled::add), Stream.of(2, 5, 8).peek(pulled::add), Stream.of(3, 6, 9));
+
+        assertTrue(pulled.isEmpty());
+        assertEquals(List.of(1, 2, 3, 4), merged.limit(4).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 4, 5), pulled);
+
+    }
+
+    @Test
+    public void shouldMergeSortedIteratorsWithoutDuplicates() {
+
+        Comparator<String> comparator = CollectionUtils.nullFirstComparator(String.CASE_INSENSITIVE_ORDER);
+        List<String> merged = StreamUtils.mergeSorted(comparator, true, 
+            Arrays.asList(null, "a", "b", "b", "d").iterator(), 
+            Arrays.asList(null, "B", "c", "D").iterator(),
+            Collections.<String>emptyIterator())
+            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(null, "a", "b", "c", "d"), merged);
+
+    }
+
+    @Test
+    public void shouldReadLinesOfMappedFile() throws IOException {
+
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "caf\u00e9\nline two\r\n\r\nthird\rlast".getBytes(StandardCharsets.UTF_8));
+
+        try(Stream<String> lines = StreamUtils.lines(file, StandardCharsets.UTF_8)) {
+            assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), lines.collect(Collectors.toList()));
+        }
+
+    }
+
+    @Test
+    public void shouldSplitLinesOfLargeMappedFileInParallel() throws IOException {
+
+        Path file = temporaryFolder.newFile().toPath();
+        List<String> expected = IntStream.range(0, 20_000)
+            .mapToObj(i -> "GET /resource/" + i + (i % 3 == 0 ? " 404" : " 200"))
+            .collect(Collectors.toList());
+        Files.write(file, String.join("\r\n", expected).getBytes(StandardCharsets.ISO_8859_1));
+
+        try(Stream<String> lines = StreamUtils.lines(file, StandardCharsets.ISO_8859_1)) {
+            assertNotNull(lines.spliterator().trySplit());
+        }
+
+        try(Stream<String> lines = StreamUtils.lines(file, StandardCharsets.ISO_8859_1)) {
+            assertEquals(expected, lines.parallel().collect(Collectors.toList()));
+        }
+
+        try(Stream<CharSequence> lines = StreamUtils.lines(file, StandardCharsets.US_ASCII, true)) {
+
+            List<CharSequence> views = lines.parallel()
+                .filter(line -> line.charAt(line.length() - 1) == '4')
+                .collect(Collectors.toList());
+
+            assertEquals(6_667, views.size());
+            assertFalse(views.get(0) instanceof String);
+            assertEquals("GET /resource/0 404", views.get(0).toString());
+            assertEquals("resource", views.get(0).subSequence(5, 13).toString());
+
+        }
+
+    }
+
+    @Test
+    public void shouldSortExternallyWithTemporaryRuns() throws IOException {
+
+        List<Integer> elements = IntStream.range(0, 10_000).map(i -> (i * 7919) % 10_000).boxed()
+            .collect(Collectors.toList());
+        long runFiles = countRunFiles();
+
+        try(Stream<Integer> sorted = StreamUtils.sortedExternal(elements.stream(), Comparator.naturalOrder(), 
+            ElementCodec.integers(), 1000)) {
+
+            Iterator<Integer> iterator = sorted.iterator();
+            assertEquals(Integer.valueOf(0), iterator.next());
+            assertEquals(runFiles + 10, countRunFiles());
+
+            int expected = 1;
+            while(iterator.hasNext())
+                assertEquals(Integer.valueOf(expected++), iterator.next());
+
+            assertEquals(10_000, expected);
+
+        }
+
+        assertEquals(runFiles, countRunFiles());
+
+    }
+
+    @Test
+    public void shouldMergeRunsByBoundedGroups() throws IOException {
+
+        List<String> elements = IntStream.range(0, 200)
+            .mapToObj(i -> i % 2 == 0 ? "k" + (i * 37) % 50 : "K" + (i * 37) % 50)
+            .collect(Collectors.toList());
+        long runFiles = countRunFiles();
+
+        try(Stream<String> sorted = StreamUtils.sortedExternal(elements.stream(), String.CASE_INSENSITIVE_ORDER, 
+            ElementCodec.strings(), 1)) {
+
+            Iterator<String> iterator = sorted.iterator();
+            List<String> result = new ArrayList<>();
+            result.add(iterator.next());
+
+            //200 runs merged by groups of 64 into 4 runs
+            assertEquals(runFiles + 4, countRunFiles());
+
+            iterator.forEachRemaining(result::add);
+            assertEquals(elements.stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList()), result);
+
+        }
+
+        assertEquals(runFiles, countRunFiles());
+
+    }
+
+    @Test
+    public void shouldSortExternallyWithoutDuplicates() {
+
+        List<String> sorted = StreamUtils.sortedExternal(Stream.of("b", "A", "a", "c", "B", "b", "d"), 
+            String.CASE_INSENSITIVE_ORDER, ElementCodec.strings(), 2, true)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of("A", "b", "c", "d"), sorted);
+
+    }
+
+    @Test
+    public void shouldCollectIntoPrimitiveArrays() {
+
+        int[] ints = IntStream.range(0, 100_000).boxed().parallel().collect(StreamUtils.toIntArray(t -> t));
+        assertEquals(100_000, ints.length);
+        assertTrue(IntStream.range(0, ints.length).allMatch(i -> ints[i] == i));
+
+        long[] longs = Stream.of("1", "22", "333").collect(StreamUtils.toLongArray(String::length));
+        assertArrayEquals(new long[] {1, 2, 3}, longs);
+
+        double[] doubles = Stream.<String>empty().collect(StreamUtils.toDoubleArray(Double::parseDouble));
+        assertEquals(0, doubles.length);
+
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldCollectIntoCompactList() {
+
+        List<Integer> list = StreamUtils.toCompactList(IntStream.range(0, 10_000).boxed().parallel());
+        assertEquals(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()), list);
+        assertEquals(Arrays.asList(1, null), Stream.of(1, null).collect(StreamUtils.toCompactList()));
+
+        list.add(1);
+
+    }
+
+    @Test
+    public void shouldCollectDistinctByKeyConcurrently() {
+
+        List<Integer> distinct = IntStream.range(0, 100_000).boxed().parallel().unordered()
+            .collect(StreamUtils.distinctByKey(i -> i % 1000));
+
+        assertEquals(1000, distinct.size());
+        assertEquals(1000, distinct.stream().map(i -> i % 1000).distinct().count());
+
+        List<String> sorted = Stream.of("bb", "a", "ccc", "dd", null, "e")
+            .collect(StreamUtils.distinctByKey(s -> s == null ? 0 : s.length(), Comparator.reverseOrder()));
+
+        assertEquals(4, sorted.size());
+        assertEquals("ccc", sorted.get(0));
+        assertEquals(null, sorted.get(3));
+
+    }
+
+    @Test
+    public void shouldGroupConcurrently() {
+
+        Map<Integer, Long> counts = IntStream.range(0, 100_000).boxed().parallel()
+            .collect(StreamUtils.groupingConcurrent(i -> i % 7, Collectors.counting()));
+
+        assertEquals(7, counts.size());
+        assertEquals(100_000L, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(Long.valueOf(14_286), counts.get(0));
+
+        Map<Integer, List<String>> sorted = Stream.of("bb", "a", "ccc", "dd", null)
+            .collect(StreamUtils.groupingConcurrent(s -> s == null ? null : s.length(), 
+                Comparator.nullsFirst(Comparator.<Integer>naturalOrder()), Collectors.toList()));
+
+        assertEquals(Arrays.asList(null, 1, 2, 3), new ArrayList<>(sorted.keySet()));
+        assertEquals(Arrays.asList("bb", "dd"), sorted.get(2));
+
+    }
+
+    @Test
+    public void shouldBridgePublisherWithBoundedPrefetch() {
+
+        AtomicInteger pulled = new AtomicInteger();
+        Flow.Publisher<Integer> publisher = StreamUtils.toPublisher(
+            IntStream.range(0, 100).boxed().peek(i -> pulled.incrementAndGet()));
+
+        Iterator<Integer> iterator = StreamUtils.toIterator(publisher, 4);
+        assertEquals(Integer.valueOf(0), iterator.next());
+        assertEquals(4, pulled.get());
+
+        iterator.next();
+        iterator.next();
+        assertEquals(7, pulled.get());
+
+        List<Integer> rest = new ArrayList<>();
+        iterator.forEachRemaining(rest::add);
+        assertEquals(97, rest.size());
+
+    }
+
+    @Test
+    public void shouldStreamFromAsynchronousPublisher() {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+
+            Flow.Publisher<Integer> publisher = StreamUtils.toPublisher(IntStream.range(0, 100_000).boxed(), executor);
+            try(Stream<Integer> stream = StreamUtils.fromPublisher(publisher, 16)) {
+                assertEquals(4_999_950_000L, stream.mapToLong(Integer::longValue).sum());
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowPublisherError() {
+
+        try(SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 8)) {
+
+            Stream<String> stream = StreamUtils.fromPublisher(publisher, 8);
+            Iterator<String> iterator = stream.iterator();
+            publisher.submit("first");
+            publisher.closeExceptionally(new IllegalStateException());
+
+            assertEquals("first", iterator.next());
+            iterator.hasNext();
+
+        }
+
+    }
+
+    @Test
+    public void shouldPrefetchAheadOfConsumer() throws InterruptedException {
+
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> source = IntStream.range(0, 1000).boxed()
+            .peek(i -> pulled.incrementAndGet())
+            .onClose(() -> closed.set(true));
+
+        try(Stream<Integer> prefetched = StreamUtils.prefetch(source, 10)) {
+
+            Iterator<Integer> iterator = prefetched.iterator();
+            assertEquals(Integer.valueOf(0), iterator.next());
+
+            long deadline = System.currentTimeMillis() + 5000;
+            //the queue is full, the producer waits with one more element pulled
+            while(pulled.get() < 12 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            assertEquals(12, pulled.get());
+
+            //and pulls no further until the consumer catches up
+            Thread.sleep(50);
+            assertEquals(12, pulled.get());
+
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!closed.get() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertTrue(closed.get());
+
+    }
+
+    @Test
+    public void shouldRethrowPrefetchFailure() {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+
+            List<Integer> consumed = new ArrayList<>();
+            Stream<Integer> source = Stream.of(1, null, 3, 4).map(i -> {
+                if(i != null && i == 4) throw new IllegalStateException();
+                return i;
+            });
+
+            try {
+                StreamUtils.prefetch(source, 2, executor).forEach(consumed::add);
+            } catch(IllegalStateException e) {
+                assertEquals(Arrays.asList(1, null, 3), consumed);
+                return;
+            }
+
+            throw new AssertionError("IllegalStateException expected");
+
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
     @Test
     public void shouldGetStreamFromIterable() {
 
@@ -98,4 +588,143 @@ public class StreamUtilsTest {
         
     }
 
+    @Test
+    public void shouldSplitStreamFromUnsizedIterable() {
+
+        Iterable<Integer> cursor = () -> IntStream.range(0, 10_000).iterator();
+
+        Spliterator<Integer> spliterator = StreamUtils.fromIterable(cursor, true).spliterator();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(BatchSpliterator.BATCH_UNIT, prefix.estimateSize());
+
+        long sum = StreamUtils.fromIterable(cursor, 10_000, true).mapToLong(Integer::longValue).sum();
+        assertEquals(49_995_000L, sum);
+
+    }
+
+    @Test
+    public void shouldKeepSizedSpliteratorOfCollection() {
+
+        List<Integer> list = TestHelpers.getListOfInt();
+        Spliterator<Integer> spliterator = StreamUtils.fromIterable(list, true).spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(list.size(), spliterator.getExactSizeIfKnown());
+
+    }
+
+    @Test
+    public void shouldFilterDuplicateFromParallelStream() {
+
+        List<Integer> filtered = IntStream.range(0, 100_000).parallel()
+            .mapToObj(i -> i % 1000 == 0 ? null : i % 5000)
+            .filter(StreamUtils.filterDuplicateConcurrent())
+            .collect(Collectors.toList());
+
+        //4995 distinct integers, multiples of 1000 being replaced by null
+        assertEquals(4996, filtered.size());
+        assertEquals(4996, new HashSet<>(filtered).size());
+        assertTrue(filtered.contains(null));
+
+    }
+
+    @Test
+    public void shouldForgetLeastRecentlySeenDuplicate() {
+
+        List<String> list = TestHelpers.getListOfString("A", "B", "A", "C", "B", "A", "C");
+
+        List<String> filtered = list.stream()
+            .filter(StreamUtils.filterDuplicateConcurrent(TestHelpers.getCaseInsensitiveComparator(), 2))
+            .collect(Collectors.toList());
+
+        assertEquals(TestHelpers.getListOfString("A", "B", "C", "B", "A", "C"), filtered);
+
+    }
+
+    @Test
+    public void shouldFilterDuplicateWithinTimeWindow() {
+
+        List<String> list = TestHelpers.getListOfString("A", "a", "B", "A");
+
+        List<String> filtered = list.stream()
+            .filter(StreamUtils.filterDuplicateConcurrent(TestHelpers.getCaseInsensitiveComparator(), 
+                Duration.ofHours(1)))
+            .collect(Collectors.toList());
+
+        List<String> unfiltered = list.stream()
+            .filter(StreamUtils.filterDuplicateConcurrent(TestHelpers.getCaseInsensitiveComparator(), 
+                Duration.ZERO))
+            .collect(Collectors.toList());
+
+        assertEquals(TestHelpers.getListOfString("A", "B"), filtered);
+        assertEquals(list, unfiltered);
+
+    }
+
+    @Test
+    public void shouldNeverExpireForeverWindow() {
+
+        List<String> filtered = TestHelpers.getListOfString("A", "a", "B", "A").stream()
+            .filter(StreamUtils.filterDuplicateConcurrent(TestHelpers.getCaseInsensitiveComparator(), 
+                ChronoUnit.FOREVER.getDuration()))
+            .collect(Collectors.toList());
+
+        assertEquals(TestHelpers.getListOfString("A", "B"), filtered);
+
+    }
+
+    @Test
+    public void shouldFilterApproximateDuplicateFromParallelStream() {
+
+        ApproximateDuplicateFilter<Integer> filter = StreamUtils.filterDuplicateApprox(
+            i -> "event-" + i, 10_000, 0.01);
+
+        long count = IntStream.range(0, 200_000).parallel()
+            .mapToObj(i -> i % 20_000)
+            .filter(filter)
+            .count();
+
+        //filter grew past the expected insertions, false positives stay under fpp
+        assertTrue(count <= 20_000 && count >= 19_800);
+        assertTrue(filter.filterCount() > 1);
+        assertTrue(filter.expectedFpp() < 0.01);
+        assertTrue(filter.memoryBytes() > 0);
+
+    }
+
+    @Test
+    public void shouldHashUuidKeysOnSixtyFourBits() {
+
+        //every UUID with equal most and least significant bits has a hashCode of 0
+        ApproximateDuplicateFilter<Long> filter = StreamUtils.filterDuplicateApprox(i -> new UUID(i, i), 1000, 0.01);
+
+        long count = LongStream.range(0, 1000).boxed().filter(filter).count();
+        assertTrue(count >= 990);
+
+    }
+
+    @Test
+    public void shouldFilterApproximateDuplicateByHash() {
+
+        ApproximateDuplicateFilter<long[]> filter = StreamUtils.filterDuplicateApproxByHash(
+            pair -> pair[0] * 31 + pair[1], 1000, 0.01);
+
+        List<long[]> pairs = Arrays.asList(new long[] { 1, 2 }, new long[] { 2, 1 }, new long[] { 1, 2 });
+        assertEquals(2, pairs.stream().filter(filter).count());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForInvalidFpp() {
+        StreamUtils.filterDuplicateApprox(Function.identity(), 100, 1.0);
+    }
+
+    private static long countRunFiles() throws IOException {
+
+        try(Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("webutils-sort-")).count();
+        }
+
+    }
+
 }
@@ -1,9 +1,15 @@
 package io.github.ahnahhas.webutils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 import org.junit.Test;
 
 public class StringUtilsTest {
@@ -46,6 +52,19 @@ public class StringUtilsTest {
         assertFalse(StringUtils.isNotBlank("  "));
     }
 
+    @Test
+    public void shouldAssertBlankForEveryCharSequence() {
+
+        assertTrue(StringUtils.isBlank(" \t\n\u000B\f\r\u001C\u2003 "));
+        assertFalse(StringUtils.isBlank("   a   "));
+        assertFalse(StringUtils.isBlank(" \u00A0 "));
+        assertTrue(StringUtils.isBlank(new StringBuilder("\u2028 \t")));
+        assertFalse(StringUtils.isBlank(new StringBuilder(" x ")));
+        assertTrue(StringUtils.isBlank(CharBuffer.wrap("  \n  ")));
+        assertFalse(StringUtils.isBlank(CharBuffer.wrap("  \n.  ")));
+
+    }
+
     @Test
     public void shouldAssertContainedString() {
         assertTrue(StringUtils.contains("OneTwoThree", "oTh"));
@@ -62,6 +81,32 @@ public class StringUtilsTest {
         assertFalse(StringUtils.contains(null, null));
     }
 
+    @Test
+    public void shouldCompareStringsIgnoringCase() {
+
+        assertEquals(0, StringUtils.compareIgnoreCase("Content-Type", "CONTENT-type"));
+        assertTrue(StringUtils.compareIgnoreCase("abc", "ABD") < 0);
+        assertTrue(StringUtils.compareIgnoreCase("abcd", "ABC") > 0);
+        assertTrue(StringUtils.compareIgnoreCase(null, "") < 0);
+        assertEquals(0, StringUtils.compareIgnoreCase("\u00e9t\u00e9", "\u00c9T\u00c9"));
+        assertEquals(0, StringUtils.compareIgnoreCase("\u00ff", "\u0178"));
+
+        assertTrue(StringUtils.equalsIgnoreCase("gzip", "GZIP"));
+        assertFalse(StringUtils.equalsIgnoreCase("gzip", "gzip2"));
+        assertFalse(StringUtils.equalsIgnoreCase("gzip", null));
+        assertTrue(StringUtils.equalsIgnoreCase(null, null));
+
+        //supplementary characters, deseret capital and small long i
+        assertTrue(StringUtils.equalsIgnoreCase("a\ud801\udc00b", "A\ud801\udc28B"));
+        assertFalse(StringUtils.equalsIgnoreCase("a\ud801\udc00b", "A\ud801\udc29B"));
+
+        //differing supplementary characters keep the order of their chars
+        assertEquals(0, StringUtils.compareIgnoreCase("\ud801\udc00", "\ud801\udc28"));
+        assertEquals(39, StringUtils.compareIgnoreCase("\ud801\udc28", "\ud801\udc01"));
+        assertEquals(-39, StringUtils.compareIgnoreCase("\ud801\udc01", "\ud801\udc28"));
+
+    }
+
     @Test
     public void shouldAssertContainedCaseInsensitiveString() {
 
@@ -89,6 +134,60 @@ public class StringUtilsTest {
 
     }
 
+    @Test
+    public void shouldSearchIndexesOfString() {
+
+        String body = "GET /a?x=1 HTTP/1.1 ".repeat(10) + "Content-Type: text/plain; Content-Type: TEXT/PLAIN";
+
+        assertEquals(body.indexOf("Content-Type"), StringUtils.indexOf(body, "Content-Type"));
+        assertEquals(body.indexOf("text/plain"), StringUtils.indexOfIgnoreCase(body, "TEXT/plain"));
+        assertEquals(-1, StringUtils.indexOf(body, "content-type"));
+        assertEquals(-1, StringUtils.indexOf(null, "a"));
+        assertArrayEquals(new int[] { 0, 1, 2 }, StringUtils.indexesOf("aaaa", "aa"));
+        assertArrayEquals(new int[] { 0, 3 }, StringUtils.indexesOfIgnoreCase("abCABc", "abc"));
+        assertArrayEquals(new int[0], StringUtils.indexesOf("abc", null));
+
+    }
+
+    @Test
+    public void shouldSearchLongPatternWithCompiledSearcher() {
+
+        String pattern = "abaabaabaabaabaabaab";
+        StringSearcher searcher = StringUtils.compileSearcher(pattern, true);
+        String text = "xx" + pattern.toUpperCase() + "x" + pattern + "ab";
+
+        assertTrue(searcher.contains(text));
+        assertEquals(2, searcher.indexOf(text));
+        assertEquals(23, searcher.indexOf(text, 3));
+        assertArrayEquals(new int[] { 2, 23 }, searcher.indexesOf(text));
+        assertFalse(StringUtils.compileSearcher(pattern, false).contains(pattern.substring(1) + "b"));
+
+    }
+
+    @Test
+    public void shouldMatchManyPatternsInOnePass() {
+
+        MultiStringMatcher matcher = StringUtils.compileMatcher(
+            Arrays.asList("he", "she", "his", "hers", "<SCRIPT"), true);
+
+        assertTrue(matcher.matches("a <script>alert(1)</script>"));
+        assertFalse(matcher.matches("nothing to see"));
+        assertFalse(matcher.matches(null));
+
+        assertEquals(Optional.of("she"), matcher.findFirst("ushers").map(MultiStringMatcher.Match::getPattern));
+        assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), matcher.findAll("uSHERS").stream()
+            .map(match -> match.getPattern() + "@" + match.getStart())
+            .collect(Collectors.toList()));
+
+        assertFalse(StringUtils.compileMatcher(Arrays.asList("he"), false).matches("HE"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForEmptyPattern() {
+        StringUtils.compileMatcher(Arrays.asList("a", ""), false);
+    }
+
     @Test
     public void shouldConcatNonNullStrings() {
         assertEquals("ABC123def", StringUtils.concat(null, "ABC", "123", null, "def"));
@@ -0,0 +1,58 @@
+package io.github.ahnahhas.webutils.helpers;
+
+import java.lang.management.ManagementFactory;
+
+public class AllocationHelpers {
+
+    //calls before measuring, lets the JIT compile the measured code
+    private static final int WARMUP_CALLS = 50_000;
+
+    //calls per measurement
+    private static final int MEASURED_CALLS = 100_000;
+
+    //measurements, the lowest one is kept to ignore one-off allocations
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    public static boolean isAllocationMeasurable() {
+        return THREAD_BEAN != null && THREAD_BEAN.isThreadAllocatedMemorySupported()
+            && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    public static double allocatedBytesPerCall(Runnable call) {
+
+        for(int i=0; i<WARMUP_CALLS; i++)
+            call.run();
+
+        long threadId = Thread.currentThread().getId();
+        long overhead = measure(() -> {}, threadId);
+        long lowest = Long.MAX_VALUE;
+
+        for(int round=0; round<ROUNDS; round++)
+            lowest = Math.min(lowest, measure(call, threadId));
+
+        return Math.max(0, lowest - overhead) / (double) MEASURED_CALLS;
+
+    }
+
+    private static long measure(Runnable call, long threadId) {
+
+        long before = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+
+        for(int i=0; i<MEASURED_CALLS; i++)
+            call.run();
+
+        return THREAD_BEAN.getThreadAllocatedBytes(threadId) - before;
+
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+
+        var bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean 
+            ? (com.sun.management.ThreadMXBean) bean : null;
+
+    }
+    
+}
@@ -0,0 +1,67 @@
+package io.github.ahnahhas.webutils.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the usual JMH command line options and applies
+ * the project defaults when they are not given: the {@code gc} profiler is enabled to report
+ * allocation rates, and results are written as JSON into {@code jmh-result-<version>.json},
+ * version being the benchmarked webutils version, so results can be compared release over release.
+ * @author Ahmed Amin Nahhas
+ */
+public class BenchmarkRunner {
+
+    //properties holding the benchmarked version
+    private static final String PROPERTIES = "/webutils-benchmarks.properties";
+
+    public static void main(String[] args) throws Exception {
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        if(commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+            || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+
+            Main.main(args);
+            return;
+
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+
+        if(commandLine.getProfilers().isEmpty())
+            builder.addProfiler(GCProfiler.class);
+
+        if(!commandLine.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+
+        if(!commandLine.getResult().hasValue())
+            builder.result("jmh-result-" + webutilsVersion() + ".json");
+
+        new Runner(builder.build()).run();
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static String webutilsVersion() throws IOException {
+
+        Properties properties = new Properties();
+        try(InputStream input = BenchmarkRunner.class.getResourceAsStream(PROPERTIES)) {
+            if(input != null) properties.load(input);
+        }
+
+        return properties.getProperty("webutils.version", "unknown");
+
+    }
+
+}
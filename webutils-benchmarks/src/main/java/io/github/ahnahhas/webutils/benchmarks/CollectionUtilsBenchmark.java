@@ -0,0 +1,210 @@
+package io.github.ahnahhas.webutils.benchmarks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ahnahhas.webutils.CollectionUtils;
+
+/**
+ * Benchmarks of the {@link io.github.ahnahhas.webutils.CollectionUtils} operations running
+ * in linear (or n log n) time. Each operation taking a comparison is measured through its
+ * natural order, identity function and comparator overloads.
+ * @author Ahmed Amin Nahhas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionUtilsBenchmark {
+
+    //identity mapper, exercises the identity overloads
+    private static final Function<String, String> IDENTITY = s -> s;
+
+    //comparator, exercises the comparator overloads
+    private static final Comparator<String> COMPARATOR = String.CASE_INSENSITIVE_ORDER;
+
+    //never matches a generated key
+    private static final Predicate<String> NO_MATCH = s -> s.isEmpty();
+
+    //matches every generated key
+    private static final Predicate<String> ALL_MATCH = s -> !s.isEmpty();
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIQUE", "SORTED", "LOW_CARDINALITY"})
+    public KeyDistribution distribution;
+
+    private List<String> keys;
+    private List<String> other;
+    private String probe;
+
+    @Setup
+    public void setup() {
+
+        keys = distribution.keys(size, 0);
+        other = distribution.keys(size, size / 2);
+        probe = keys.get(size / 2);
+
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return CollectionUtils.isEmpty(keys);
+    }
+
+    @Benchmark
+    public boolean isNotEmpty() {
+        return CollectionUtils.isNotEmpty(keys);
+    }
+
+    @Benchmark
+    public String minOfNatural() {
+        return CollectionUtils.minOf(keys);
+    }
+
+    @Benchmark
+    public String minOfIdentity() {
+        return CollectionUtils.minOf(IDENTITY, keys);
+    }
+
+    @Benchmark
+    public String minOfComparator() {
+        return CollectionUtils.minOf(COMPARATOR, keys);
+    }
+
+    @Benchmark
+    public String maxOfNatural() {
+        return CollectionUtils.maxOf(keys);
+    }
+
+    @Benchmark
+    public String maxOfIdentity() {
+        return CollectionUtils.maxOf(IDENTITY, keys);
+    }
+
+    @Benchmark
+    public String maxOfComparator() {
+        return CollectionUtils.maxOf(COMPARATOR, keys);
+    }
+
+    @Benchmark
+    public Collection<String> filter() {
+        return CollectionUtils.filter(keys, ALL_MATCH);
+    }
+
+    @Benchmark
+    public Collection<String> filterConcurrent() {
+        return CollectionUtils.filterConcurrent(keys, ALL_MATCH, 4);
+    }
+
+    @Benchmark
+    public boolean allMatch() {
+        return CollectionUtils.allMatch(keys, ALL_MATCH);
+    }
+
+    @Benchmark
+    public long countMatches() {
+        return CollectionUtils.countMatches(keys, ALL_MATCH);
+    }
+
+    @Benchmark
+    public Collection<String> mergeCollections() {
+        return CollectionUtils.merge(keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> mergeCombiner() {
+        return CollectionUtils.merge(keys, other, String::concat);
+    }
+
+    @Benchmark
+    public long countNatural() {
+        return CollectionUtils.count(probe, keys);
+    }
+
+    @Benchmark
+    public long countIdentity() {
+        return CollectionUtils.count(IDENTITY, probe, keys);
+    }
+
+    @Benchmark
+    public long countComparator() {
+        return CollectionUtils.count(COMPARATOR, probe, keys);
+    }
+
+    @Benchmark
+    public Collection<String> concat() {
+        return CollectionUtils.concat(keys, other);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> groupByIdentity() {
+        return CollectionUtils.groupByIdentity(IDENTITY, keys, other);
+    }
+
+    @Benchmark
+    public int nullFirstComparator() {
+        return CollectionUtils.<String>nullFirstComparator().compare(probe, null);
+    }
+
+    @Benchmark
+    public int nullLastComparator() {
+        return CollectionUtils.<String>nullLastComparator().compare(probe, null);
+    }
+
+    @Benchmark
+    public Collection<String> mutableCopyOf() {
+        return CollectionUtils.mutableCopyOf(keys);
+    }
+
+    @Benchmark
+    public Collection<String> mapElements() {
+        return CollectionUtils.mapElements(keys, IDENTITY);
+    }
+
+    @Benchmark
+    public Collection<String> mapElementsConcurrent() {
+        return CollectionUtils.mapElementsConcurrent(keys, IDENTITY, 4);
+    }
+
+    @Benchmark
+    public String anyElement() {
+        return CollectionUtils.anyElement(keys);
+    }
+
+    @Benchmark
+    public String firstElement() {
+        return CollectionUtils.firstElement(keys);
+    }
+
+    @Benchmark
+    public String firstCompliant() {
+        return CollectionUtils.firstCompliant(keys, NO_MATCH);
+    }
+
+    @Benchmark
+    public String firstNonCompliant() {
+        return CollectionUtils.firstNonCompliant(keys, ALL_MATCH);
+    }
+
+}
@@ -0,0 +1,156 @@
+package io.github.ahnahhas.webutils.benchmarks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ahnahhas.webutils.CollectionUtils;
+
+/**
+ * Benchmarks of the {@link io.github.ahnahhas.webutils.CollectionUtils} operations comparing
+ * every element of a collection against another collection. Their cost grows with the product
+ * of the input sizes, so default sizes stop at 10000; larger sizes, up to 1000000, can be run
+ * explicitly with {@code -p size=100000,1000000} at the price of very long iterations.
+ * @author Ahmed Amin Nahhas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionUtilsQuadraticBenchmark {
+
+    //identity mapper, exercises the identity overloads
+    private static final Function<String, String> IDENTITY = s -> s;
+
+    //comparator, exercises the comparator overloads
+    private static final Comparator<String> COMPARATOR = String.CASE_INSENSITIVE_ORDER;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    @Param({"UNIQUE", "SORTED", "LOW_CARDINALITY"})
+    public KeyDistribution distribution;
+
+    private List<String> keys;
+    private List<String> other;
+
+    @Setup
+    public void setup() {
+
+        keys = distribution.keys(size, 0);
+        other = distribution.keys(size, size / 2);
+
+    }
+
+    @Benchmark
+    public Collection<String> distinctNatural() {
+        return CollectionUtils.distinct(keys);
+    }
+
+    @Benchmark
+    public Collection<String> distinctIdentity() {
+        return CollectionUtils.distinct(IDENTITY, keys);
+    }
+
+    @Benchmark
+    public Collection<String> distinctComparator() {
+        return CollectionUtils.distinct(COMPARATOR, keys);
+    }
+
+    @Benchmark
+    public Collection<String> outerJoinNatural() {
+        return CollectionUtils.outerJoin(keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> outerJoinIdentity() {
+        return CollectionUtils.outerJoin(IDENTITY, keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> outerJoinComparator() {
+        return CollectionUtils.outerJoin(COMPARATOR, keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> innerJoinNatural() {
+        return CollectionUtils.innerJoin(keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> innerJoinIdentity() {
+        return CollectionUtils.innerJoin(IDENTITY, keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> innerJoinComparator() {
+        return CollectionUtils.innerJoin(COMPARATOR, keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAnyNatural() {
+        return CollectionUtils.containsAny(keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAnyIdentity() {
+        return CollectionUtils.containsAny(IDENTITY, keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAnyComparator() {
+        return CollectionUtils.containsAny(COMPARATOR, keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAllNatural() {
+        return CollectionUtils.containsAll(keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAllIdentity() {
+        return CollectionUtils.containsAll(IDENTITY, keys, other);
+    }
+
+    @Benchmark
+    public boolean containsAllComparator() {
+        return CollectionUtils.containsAll(COMPARATOR, keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> compliantNatural() {
+        return CollectionUtils.compliant(keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> compliantComparator() {
+        return CollectionUtils.compliant(COMPARATOR, keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> nonCompliantNatural() {
+        return CollectionUtils.nonCompliant(keys, other);
+    }
+
+    @Benchmark
+    public Collection<String> nonCompliantComparator() {
+        return CollectionUtils.nonCompliant(COMPARATOR, keys, other);
+    }
+
+}
@@ -0,0 +1,56 @@
+package io.github.ahnahhas.webutils.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Distribution of the keys fed to the benchmarks.
+ * @author Ahmed Amin Nahhas
+ */
+public enum KeyDistribution {
+
+    /** Distinct keys in random order */
+    UNIQUE,
+
+    /** Distinct keys in ascending order */
+    SORTED,
+
+    /** Keys drawn from about sqrt(size) distinct values, in random order */
+    LOW_CARDINALITY;
+
+    //fixed seed, runs must be comparable
+    private static final long SEED = 42L;
+
+    /**
+     * Returns size keys following this distribution. Keys are numbered from offset,
+     * so two lists generated with different offsets partially overlap.
+     * 
+     * @param size   Number of keys
+     * @param offset First key number
+     * @return       List of keys
+     */
+    public List<String> keys(int size, int offset) {
+
+        Random random = new Random(SEED + offset);
+        List<String> keys = new ArrayList<>(size);
+        int cardinality = this == LOW_CARDINALITY ? Math.max(1, (int) Math.sqrt(size)) : size;
+
+        for(int i=0; i<size; i++)
+            keys.add(key(offset + (this == LOW_CARDINALITY ? random.nextInt(cardinality) : i)));
+
+        if(this != SORTED)
+            Collections.shuffle(keys, random);
+
+        return keys;
+
+    }
+
+    /*************************** API PRIVATE METHODS ***************************/
+
+    private static String key(int number) {
+        return String.format("key-%08d", number);
+    }
+
+}
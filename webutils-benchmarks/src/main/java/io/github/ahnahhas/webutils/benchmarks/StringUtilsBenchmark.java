@@ -0,0 +1,190 @@
+package io.github.ahnahhas.webutils.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ahnahhas.webutils.StringUtils;
+
+/**
+ * Benchmarks of the {@link io.github.ahnahhas.webutils.StringUtils} hot paths, each one paired
+ * with a {@code jdk} prefixed baseline doing the same work with the {@link java.lang.String} API.
+ * Inputs are short headers or long bodies, made of Latin-1 only characters (compact strings)
+ * or containing UTF-16 characters, and searches either hit or miss.
+ * @author Ahmed Amin Nahhas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+    /** Shape of the benchmarked text */
+    public enum Input { HEADER, BODY }
+
+    /** Characters of the benchmarked text */
+    public enum Charset { LATIN1, UTF16 }
+
+    /** Outcome of the searches */
+    public enum Outcome { HIT, MISS }
+
+    //length of a body input
+    private static final int BODY_LENGTH = 8192;
+
+    //padding size
+    private static final int PAD_SIZE = 16;
+
+    @Param({"HEADER", "BODY"})
+    public Input input;
+
+    @Param({"LATIN1", "UTF16"})
+    public Charset charset;
+
+    @Param({"HIT", "MISS"})
+    public Outcome outcome;
+
+    private String text;
+    private String textCopy;
+    private String textUpper;
+    private String blank;
+    private String needle;
+    private String needleUpper;
+    private String[] parts;
+
+    @Setup
+    public void setup() {
+
+        String unit = input == Input.HEADER
+            ? "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36"
+            : "{\"id\":%d,\"name\":\"item-%d\",\"tags\":[\"web\",\"utils\"],\"price\":12.5},";
+
+        if(charset == Charset.UTF16)
+            unit = unit + " Привет";
+
+        //body units are numbered so the needle only occurs at the end of the text
+        StringBuilder sb = new StringBuilder(String.format(unit, 0, 0));
+        int lastUnit = 0;
+
+        for(int i=1; input == Input.BODY && sb.length() < BODY_LENGTH; i++) {
+            lastUnit = sb.length();
+            sb.append(String.format(unit, i, i));
+        }
+
+        text = sb.toString();
+        textCopy = new String(text.toCharArray());
+        textUpper = text.toUpperCase();
+        blank = " ".repeat(text.length());
+
+        //needle taken near the end of the text, a miss differs only by its last char
+        int start = input == Input.BODY ? lastUnit : text.length() - 24;
+        String hit = text.substring(start, start + 16);
+        needle = outcome == Outcome.HIT ? hit : hit.substring(0, hit.length() - 1) + '#';
+        needleUpper = needle.toUpperCase();
+
+        parts = text.split("[;,]");
+
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return StringUtils.contains(text, needle);
+    }
+
+    @Benchmark
+    public boolean jdkContains() {
+        return text.contains(needle);
+    }
+
+    @Benchmark
+    public boolean containsIgnoreCase() {
+        return StringUtils.containsIgnoreCase(text, needleUpper);
+    }
+
+    @Benchmark
+    public boolean jdkContainsIgnoreCase() {
+        return text.toLowerCase().contains(needleUpper.toLowerCase());
+    }
+
+    @Benchmark
+    public int compareIgnoreCase() {
+        return StringUtils.compareIgnoreCase(textCopy, textUpper);
+    }
+
+    @Benchmark
+    public int jdkCompareIgnoreCase() {
+        return textCopy.compareToIgnoreCase(textUpper);
+    }
+
+    @Benchmark
+    public boolean equalsIgnoreCase() {
+        return StringUtils.equalsIgnoreCase(textCopy, textUpper);
+    }
+
+    @Benchmark
+    public boolean jdkEqualsIgnoreCase() {
+        return textCopy.equalsIgnoreCase(textUpper);
+    }
+
+    @Benchmark
+    public boolean isBlank() {
+        return StringUtils.isBlank(text);
+    }
+
+    @Benchmark
+    public boolean jdkIsBlank() {
+        return text.isBlank();
+    }
+
+    @Benchmark
+    public boolean isBlankWhitespaces() {
+        return StringUtils.isBlank(blank);
+    }
+
+    @Benchmark
+    public boolean jdkIsBlankWhitespaces() {
+        return blank.isBlank();
+    }
+
+    @Benchmark
+    public String joinFiltered() {
+        return StringUtils.joinFiltered(", ", StringUtils::isNotBlank, parts);
+    }
+
+    @Benchmark
+    public String jdkJoin() {
+        return String.join(", ", parts);
+    }
+
+    @Benchmark
+    public String leftPad() {
+        return StringUtils.leftPad(needle, PAD_SIZE);
+    }
+
+    @Benchmark
+    public String jdkLeftPad() {
+        return " ".repeat(PAD_SIZE) + needle;
+    }
+
+    @Benchmark
+    public String rightPad() {
+        return StringUtils.rightPad(needle, PAD_SIZE);
+    }
+
+    @Benchmark
+    public String jdkRightPad() {
+        return needle + " ".repeat(PAD_SIZE);
+    }
+
+}